@@ -4,9 +4,12 @@ import gui.panels.ButtonPanel;
 import gui.panels.ComponentFactory;
 import gui.panels.InputInfoPanel;
 import main.Main;
+import model.enums.JournalRecordType;
 import model.enums.UserType;
 import model.exceptions.CannotSaveSystemException;
 import model.exceptions.NotIntegerException;
+import model.storage.EmploymentCenter;
+import model.storage.JournalRecord;
 import model.user.NullUser;
 import model.user.User;
 
@@ -186,10 +189,26 @@ public class LoginFrame extends JFrame {
         JFrame frame = new UserMenuFrame(getMain(), user);
         String message = user.getMessage();
         if (!message.equals("")) {
+            getMain().getEmploymentCenter().record(new JournalRecord(JournalRecordType.READ_MESSAGES,
+                    user.getUsername(), user.getUserType().name()));
             JOptionPane.showMessageDialog(frame, message);
         }
     }
 
+    /**
+     * A helper method that starts processing all job postings whose close date has passed, and records it
+     * if any job posting is changed.
+     *
+     * @see LoginListener#actionPerformed(ActionEvent)
+     * @see SaveSystemListener#actionPerformed(ActionEvent)
+     */
+    private void updateOpenJobPostings() {
+        EmploymentCenter employmentCenter = getMain().getEmploymentCenter();
+        if (employmentCenter.updateOpenJobPostings()) {
+            employmentCenter.record(new JournalRecord(JournalRecordType.CLOSE_JOB_POSTINGS));
+        }
+    }
+
     /**
      * Class {@code LoginListener} implements {@code ActionListener}.
      * It deals with the case when "Login" button is clicked.
@@ -207,7 +226,7 @@ public class LoginFrame extends JFrame {
             User user = getUser();
             char[] password = getInputInfoPanel().getPassword();
             if (checkUser(user, password)) {
-                getMain().getEmploymentCenter().updateOpenJobPostings();
+                updateOpenJobPostings();
                 login(user);
             }
         }
@@ -242,6 +261,7 @@ public class LoginFrame extends JFrame {
         /**
          * Override the method {@code actionPerformed} in interface {@code ActionListener}.
          * When clicking "Restart", the system saves data generated from this round and allows users to reset the date.
+         * Job postings whose close date has passed the new date start processing right away.
          *
          * @param e the {@code ActionEvent} of clicking on button "Restart"
          */
@@ -253,6 +273,7 @@ public class LoginFrame extends JFrame {
             try {
                 main.saveSystem();
                 Main.setDaysElapse(JOptionPane.showInputDialog(LoginFrame.this, message));
+                updateOpenJobPostings();
             } catch (CannotSaveSystemException | NotIntegerException e1) {
                 JOptionPane.showMessageDialog(LoginFrame.this, e1.getMessage());
             }
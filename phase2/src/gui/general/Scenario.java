@@ -6,11 +6,13 @@ import gui.scenarios.hiringManager.JobPostingRegisterScenario;
 import gui.scenarios.userRegister.UserRegisterScenario;
 import main.Main;
 import model.enums.UserType;
+import model.exceptions.CannotReadDocumentException;
 import model.exceptions.NotOverrideException;
 import model.job.Document;
 import model.job.DocumentManager;
 import model.job.InterviewRound;
 import model.job.JobPosting;
+import model.storage.JournalRecord;
 
 import javax.swing.*;
 import javax.swing.event.ListSelectionEvent;
@@ -154,6 +156,17 @@ public abstract class Scenario extends JPanel {
         return getUserMenuFrame().getMain();
     }
 
+    /**
+     * Record a change that has been made successfully in this scenario, so that it is written to the journal
+     * the next time the system is saved.
+     *
+     * @param record the record of the change
+     * @see model.storage.EmploymentCenter#record(JournalRecord)
+     */
+    protected void record(JournalRecord record) {
+        getMain().getEmploymentCenter().record(record);
+    }
+
     /**
      * Show message in the {@code outputInfoPanel}.
      *
@@ -165,12 +178,16 @@ public abstract class Scenario extends JPanel {
     }
 
     /**
-     * Show content of a certain document in the user interface.
+     * Show content of a certain document in the user interface, or a message if it can not be read.
      *
      * @param document the {@code Document} that needs to be shown
      */
     protected void showDocument(Document document) {
-        outputInfoPanel.showDocument(document);
+        try {
+            outputInfoPanel.showDocument(document);
+        } catch (CannotReadDocumentException e) {
+            showMessage(e.getMessage());
+        }
     }
 
     /**
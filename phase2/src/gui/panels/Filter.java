@@ -1,12 +1,20 @@
 package gui.panels;
 
+import model.interfaces.FilterKeys;
 import model.interfaces.Filterable;
+import model.interfaces.SortKey;
 import model.job.JobPosting;
 import model.user.User;
 
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
 
 /**
  * Class {@code Filter} filters through a list of objects that implemented {@code Filterable}
@@ -19,6 +27,18 @@ import java.util.HashMap;
  */
 public class Filter<T extends Filterable> {
 
+    // The number of instances from which filtering goes through a FilterIndex instead of every instance
+    private static final int INDEX_THRESHOLD = 64;
+
+    // The number of instances from which a scan is split among all processors
+    private static final int PARALLEL_THRESHOLD = 4096;
+
+    // The number of rows the table is taken to show at once until it tells otherwise
+    private static final int DEFAULT_VISIBLE_ROWS = 20;
+
+    // The number of results sorted beyond a screen past the row asked for
+    private static final int SORT_MARGIN = 32;
+
     /**
      * The list of instances to filter through. All instances need to implement
      * {@code Filterable} interface.
@@ -30,33 +50,129 @@ public class Filter<T extends Filterable> {
     private ArrayList<T> filterContent;
 
     /**
-     * The resulting list of instances(filterable) after filtration.
+     * The resulting list of instances(filterable) after filtration. When the results were looked up in the
+     * index, only those asked for so far are in it, and the rest are taken from {@code matched} as needed.
      *
      * @see #getResults()
-     * @see #getSelectedItem(int)
+     * @see #getResult(int)
      * @see #filter()
      */
     private ArrayList<T> results = new ArrayList<>();
 
     /**
-     * Keywords for filtering. It has format "(.+;)*(.+)".
+     * The positions in {@code filterContent} of the results looked up in the index, or {@code null} if
+     * {@code results} already holds all results.
+     *
+     * @see #fillResults(int)
+     * @see #getTop(String, boolean, int)
+     */
+    private BitSet matched;
+
+    /**
+     * The position in {@code filterContent} after the last result taken from {@code matched}.
+     */
+    private int nextMatched;
+
+    /**
+     * The number of results, including those not taken from {@code matched} yet.
+     *
+     * @see #getResultCount()
+     */
+    private int resultCount;
+
+    /**
+     * The heading results are sorted by, or {@code null} if they are kept in the order of
+     * {@code filterContent}.
+     *
+     * @see #setSortOrder(String, boolean)
+     */
+    private String sortHeading;
+
+    /**
+     * Whether results are sorted with the largest values first.
+     */
+    private boolean sortDescending;
+
+    /**
+     * The first results in sort order, or {@code null} if results are not sorted. Only the results up to
+     * a screen past the last row asked for are sorted, and the rest are sorted when the table asks for them.
+     *
+     * @see #getResult(int)
+     * @see #getTop(String, boolean, int)
+     */
+    private ArrayList<T> sorted;
+
+    /**
+     * The number of rows the table shows at once.
+     *
+     * @see #setVisibleRows(int)
+     */
+    private int visibleRows = DEFAULT_VISIBLE_ROWS;
+
+    /**
+     * The query for filtering.
      *
-     * @see #getFilterValues()
+     * @see FilterQuery
+     * @see #getQuery()
      * @see #setFilterString(String)
+     * @see #getFilterString()
      */
     private String filterString = "";
 
+    /**
+     * The prefix trie over the search values of {@code filterContent}, or {@code null} if there are too few
+     * instances for it to pay off.
+     *
+     * @see FilterIndex
+     * @see #setFilterContent(ArrayList)
+     * @see #filter()
+     */
+    private FilterIndex index;
+
+    /**
+     * The query {@code results} were filtered with, or {@code null} if {@code results} do not come from the
+     * current {@code filterContent}.
+     *
+     * @see #refine()
+     */
+    private FilterQuery resultQuery;
+
+    /**
+     * The modification count of {@code FilterKeys} and the size of {@code filterContent} when
+     * {@code results} were filtered.
+     *
+     * @see #refine()
+     */
+    private long resultModificationCount;
+
+    private int resultContentSize;
+
+    /**
+     * Set the instances to filter through, and build the index over them if there are enough of them.
+     *
+     * @param filterContent the instances to filter through
+     */
     public void setFilterContent(ArrayList<T> filterContent) {
         this.filterContent = filterContent;
+        resultQuery = null;
+        index = null;
+        if (filterContent != null && filterContent.size() >= INDEX_THRESHOLD) index = new FilterIndex(filterContent);
     }
 
     /**
-     * Separate the string into String[] where each element is a keyword for filtering.
+     * Compile {@code filterString} against the headings of {@code filterContent}.
      *
-     * @return String[] where each element is a keyword for filtering
+     * @return the compiled query
+     * @see FilterQuery#compile(String, List)
      */
-    private String[] getFilterValues() {
-        return filterString.split("[;]");
+    private FilterQuery getQuery() {
+        boolean hasHeadings = filterContent != null && !filterContent.isEmpty();
+        return FilterQuery.compile(filterString, hasHeadings ?
+                filterContent.get(0).getFilterKeys().getHeadings() : Collections.emptyList());
+    }
+
+    String getFilterString() {
+        return filterString;
     }
 
     void setFilterString(String filterString) {
@@ -64,79 +180,284 @@ public class Filter<T extends Filterable> {
     }
 
     /**
-     * Return true if and only if the beginning of {@code value} matches {@code filterValue}.
+     * Filter through all the objects in {@code filterContent} and store those
+     * that matches in {@code result}. If there is an index, the matched objects are looked up
+     * in it, and kept in the order of {@code filterContent}. If items were added or removed, or any
+     * {@code Filterable} dropped its {@code FilterKeys} since the index was built, the index is built again.
+     * @see FilterQuery#match(FilterIndex)
+     * @see FilterIndex#isOutdated()
+     */
+    void filter() {
+        setResults(new ArrayList<>(), null);
+        resultQuery = null;
+        if (filterContent == null) return;
+        resultModificationCount = FilterKeys.getModificationCount();
+        resultContentSize = filterContent.size();
+        FilterQuery query = getQuery();
+        if (filterContent.size() >= INDEX_THRESHOLD) {
+            if (index == null || index.isOutdated()) index = new FilterIndex(filterContent);
+            setResults(new ArrayList<>(), query.match(index));
+        } else {
+            setResults(scan(filterContent, query), null);
+        }
+        if (sortHeading != null) {
+            sorted = new ArrayList<>();
+        } else if (query.isRanked()) {
+            setResults(rank(getResults(), query), null);
+        }
+        resultQuery = query;
+    }
+
+    /**
+     * Return results in order of how similar they are to the keywords of the query, most similar first,
+     * keeping the order of {@code results} among equally similar results.
      *
-     * @param value       the value for determining whether match {@code filterValue} or not
-     * @param filterValue the sample to be filtered against
-     * @return true if and only if the beginning of {@code value} matches {@code filterValue}
+     * @param results the results
+     * @param query   the query the results were filtered with
+     * @return the results ranked
+     * @see FilterQuery#getScore(Filterable)
      */
-    private boolean isValueMatched(String value, String filterValue) {
-        return value.toLowerCase().startsWith(filterValue.toLowerCase());
+    private ArrayList<T> rank(ArrayList<T> results, FilterQuery query) {
+        double[] scores = new double[results.size()];
+        Integer[] order = new Integer[results.size()];
+        for (int i = 0; i < order.length; i++) {
+            scores[i] = query.getScore(results.get(i));
+            order[i] = i;
+        }
+        Arrays.sort(order, (row, other) -> Double.compare(scores[other], scores[row]));
+        ArrayList<T> ranked = new ArrayList<>(order.length);
+        for (int row : order) {
+            ranked.add(results.get(row));
+        }
+        return ranked;
     }
 
     /**
-     * Return true if and only if at least one value in the map given by {@code filterable}
-     * matches one of the values in {@code filterString}
-     * @param filterable    a class that implemented {@code Filterable} interface
-     * @return true if and only if at least one value in the map given by {@code filterable}
-     * matches one of the values in {@code filterString}
-     * @see #getFilterValues()
+     * Set the order of the results and filter again, so the results come in that order.
+     *
+     * @param heading    the heading to sort by, or {@code null} to keep the order of {@code filterContent}
+     * @param descending whether the largest values come first
+     * @see #getTop(String, boolean, int)
+     * @see #refine()
      */
-    private boolean isMatched(T filterable) {
-        for (String value : filterable.getFilterMap().values()) {
-            for (String filterValue : getFilterValues()) {
-                if (isValueMatched(value, filterValue)) return true;
-            }
+    void setSortOrder(String heading, boolean descending) {
+        sortHeading = heading;
+        sortDescending = descending;
+        filter();
+    }
+
+    /**
+     * Replace the results.
+     *
+     * @param results the results, or the first of them if {@code matched} is not {@code null}
+     * @param matched the positions of all results in {@code filterContent}, or {@code null} if
+     *                {@code results} holds all of them
+     */
+    private void setResults(ArrayList<T> results, BitSet matched) {
+        this.results = results;
+        this.matched = matched;
+        sorted = null;
+        nextMatched = 0;
+        resultCount = matched == null ? results.size() : matched.cardinality();
+    }
+
+    /**
+     * Take results from {@code matched} until there are {@code count} of them in {@code results}, or
+     * there are no more.
+     *
+     * @param count the number of results needed
+     */
+    private void fillResults(int count) {
+        if (matched == null) return;
+        while (results.size() < count) {
+            int position = matched.nextSetBit(nextMatched);
+            if (position < 0) break;
+            results.add(filterContent.get(position));
+            nextMatched = position + 1;
         }
-        return false;
     }
 
     /**
-     * Filter through all the objects in {@code filterContent} and store those
-     * that matches in {@code result}.
-     * @see #isMatched(Filterable)
+     * Filter again after {@code filterString} has changed while the user is typing. If the new query
+     * narrows the last one, as when a keyword is extended or a term is added, nothing outside the last
+     * results can match, so only the last results are filtered through. Otherwise, or if any values have
+     * changed since the last results were filtered, filter through all of {@code filterContent}. So do
+     * results that were ranked for the last query but are not for the new one, since they have to be in the
+     * order of {@code filterContent} again.
+     * <p>
+     * As in {@link #filter()}, sorted results are sorted again as the table asks for them, and results of
+     * a search for similar words are ranked again, since the scores change with the keywords.
+     *
+     * @see #filter()
+     * @see FilterQuery#narrows(FilterQuery)
      */
-    void filter() {
-        results.clear();
-        if (filterContent == null) return;
-        for (T filterable : filterContent) {
-            if (isMatched(filterable)) results.add(filterable);
+    void refine() {
+        FilterQuery query = getQuery();
+        if (filterContent == null || resultQuery == null || !query.narrows(resultQuery)
+                || resultModificationCount != FilterKeys.getModificationCount()
+                || resultContentSize != filterContent.size()
+                || (sortHeading == null && resultQuery.isRanked() && !query.isRanked())) {
+            filter();
+            return;
+        }
+        setResults(scan(getResults(), query), null);
+        if (sortHeading != null) {
+            sorted = new ArrayList<>();
+        } else if (query.isRanked()) {
+            setResults(rank(getResults(), query), null);
+        }
+        resultQuery = query;
+    }
+
+    /**
+     * Return the instances in {@code items} that match {@code query}, in the order of {@code items}.
+     * From {@code PARALLEL_THRESHOLD} instances on, the instances are matched in parallel.
+     *
+     * @param items the instances to be scanned
+     * @param query the compiled {@code filterString}
+     * @return the matched instances
+     * @see FilterQuery#matches(Filterable)
+     */
+    private ArrayList<T> scan(List<T> items, FilterQuery query) {
+        if (items.size() >= PARALLEL_THRESHOLD) {
+            return items.parallelStream().filter(filterable -> query.matches(filterable))
+                    .collect(Collectors.toCollection(ArrayList::new));
         }
+        ArrayList<T> matched = new ArrayList<>();
+        for (T filterable : items) {
+            if (query.matches(filterable)) matched.add(filterable);
+        }
+        return matched;
     }
 
     T getSelectedItem(int index) {
-        return getResults().get(index);
+        return getResult(index);
     }
 
+    /**
+     * Return all results, taking those not asked for yet from {@code matched}. Results are not in sort
+     * order, which only {@link #getResult(int)} follows.
+     *
+     * @return all results, in the order of {@code filterContent}, or ranked
+     */
     ArrayList<T> getResults() {
+        fillResults(resultCount);
         return results;
     }
 
+    /**
+     * Return a result, taking only the results before it from {@code matched}. If results are sorted and
+     * {@code row} is past those sorted so far, at least twice as many are sorted again, up to a screen and
+     * {@code SORT_MARGIN} more past {@code row}, so that scrolling down sorts again only now and then.
+     *
+     * @param row the position of the result among all results
+     * @return the result at {@code row}
+     * @see #getTop(String, boolean, int)
+     */
+    T getResult(int row) {
+        if (sorted == null) {
+            fillResults(row + 1);
+            return results.get(row);
+        }
+        if (row >= sorted.size()) {
+            int k = Math.max(row + 1, 2 * sorted.size()) + visibleRows + SORT_MARGIN;
+            sorted = getTop(sortHeading, sortDescending, Math.min(k, resultCount));
+        }
+        return sorted.get(row);
+    }
+
+    int getResultCount() {
+        return resultCount;
+    }
+
+    /**
+     * Set the number of rows the table shows at once, which is how many results past the row asked for
+     * are sorted ahead.
+     *
+     * @param visibleRows the number of rows the table shows at once
+     * @see #getResult(int)
+     */
+    void setVisibleRows(int visibleRows) {
+        this.visibleRows = Math.max(visibleRows, 1);
+    }
+
+    /**
+     * Return the first {@code k} results in order of the sort keys of their values under a heading.
+     * Results without a value under the heading come last, and results with
+     * equal values keep the order of {@code filterContent}, reversed along with the values when
+     * {@code descending}.
+     * <p>
+     * If the results were looked up in the index, the values under the heading are walked in order until
+     * {@code k} results are found. Otherwise, the results are passed through a heap that never holds more
+     * than {@code k} of them.
+     *
+     * @param heading    the heading to order by
+     * @param descending whether the largest values come first
+     * @param k          the largest number of results returned
+     * @return the first {@code k} results in order
+     * @see FilterIndex#getSortedPositions(String)
+     * @see model.interfaces.FilterKeys#getSortKey(String)
+     */
+    ArrayList<T> getTop(String heading, boolean descending, int k) {
+        ArrayList<T> top = new ArrayList<>();
+        if (k <= 0) return top;
+        if (matched != null) {
+            int[] sorted = index.getSortedPositions(heading);
+            for (int i = 0; i < sorted.length && top.size() < k; i++) {
+                int position = sorted[descending ? sorted.length - 1 - i : i];
+                if (matched.get(position)) top.add(filterContent.get(position));
+            }
+            for (int i = matched.nextSetBit(0); i >= 0 && top.size() < k; i = matched.nextSetBit(i + 1)) {
+                if (filterContent.get(i).getFilterKeys().getSearchKey(heading) == null) top.add(filterContent.get(i));
+            }
+            return top;
+        }
+        ArrayList<SortKey> sortKeys = new ArrayList<>(results.size());
+        for (T result : results) {
+            sortKeys.add(result.getFilterKeys().getSortKey(heading));
+        }
+        Comparator<Integer> order = (row, other) -> {
+            SortKey key = sortKeys.get(row);
+            SortKey otherKey = sortKeys.get(other);
+            if (key == null || otherKey == null) {
+                return key != null ? -1 : otherKey != null ? 1 : Integer.compare(row, other);
+            }
+            int comparison = key.compareTo(otherKey);
+            if (comparison == 0) comparison = Integer.compare(row, other);
+            return descending ? -comparison : comparison;
+        };
+        PriorityQueue<Integer> heap = new PriorityQueue<>(k + 1, order.reversed());
+        for (int row = 0; row < results.size(); row++) {
+            heap.add(row);
+            if (heap.size() > k) heap.poll();
+        }
+        while (!heap.isEmpty()) {
+            top.add(results.get(heap.poll()));
+        }
+        Collections.reverse(top);
+        return top;
+    }
+
     /**
      * Get headings from objects in {@code filterContent}.
      * @return headings from objects in {@code filterContent}
-     * @see Filterable#getFilterMap()
+     * @see Filterable#getFilterKeys()
      */
     String[] getHeadings() {
         if (filterContent.size() != 0) {
-            Collection<String> headingCollection = filterContent.get(0).getFilterMap().keySet();
-            return new ArrayList<>(headingCollection).toArray(new String[0]);
+            return filterContent.get(0).getFilterKeys().getHeadings().toArray(new String[0]);
         } else return null;
     }
 
     /**
-     * Get search values from {@code filterable} given headings.
+     * Get the search value from {@code filterable} under a heading.
      * @param filterable    an object that implements {@code Filterable} interface
-     * @param headings  the heading for all the search values needed from {@code Filterable}
-     * @return search values from {@code filterable}
-     * @see Filterable#getFilterMap()
-     */
-    String[] getSearchValues(T filterable, String[] headings) {
-        String[] searchValues = new String[headings.length];
-        for (int i = 0; i < headings.length; i++) {
-            searchValues[i] = filterable.getFilterMap().get(headings[i]);
-        }
-        return searchValues;
+     * @param heading   the heading of the search value needed from {@code Filterable}
+     * @return the search value from {@code filterable}
+     * @see Filterable#getFilterKeys()
+     */
+    String getSearchValue(T filterable, String heading) {
+        return filterable.getFilterKeys().get(heading);
     }}
 
 
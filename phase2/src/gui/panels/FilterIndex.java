@@ -0,0 +1,403 @@
+package gui.panels;
+
+import model.interfaces.FilterKeys;
+import model.interfaces.Filterable;
+import model.interfaces.SortKey;
+import model.interfaces.TextSearchable;
+import model.job.DocumentManager;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Class {@code FilterIndex} is a prefix trie over the lower-cased search values of a list of
+ * {@code Filterable}s, so that {@code Filter} finds the items a keyword matches by walking down
+ * the keyword once instead of comparing it with every value of every item.
+ * <p>
+ * Every node keeps the positions of the items that have a value starting with the prefix it
+ * stands for, in increasing order, so the items a keyword matches are those of the node the
+ * keyword ends at.
+ * <p>
+ * For queries on a single heading, a trie over the values under that heading and a list of those
+ * values in order of their sort keys are built the first time the heading is queried. Likewise, a
+ * {@code TrigramIndex} is built the first time a heading, or all of them, are searched for similar words,
+ * and the words of the documents of {@code TextSearchable} items are collected into one posting list per
+ * word the first time documents are searched. When documents are added or removed later, only the items
+ * whose words changed are indexed again.
+ *
+ * @author group 0120 of CSC207 summer 2019
+ * @see Filter
+ * @see Filterable
+ * @since 2019-08-15
+ */
+class FilterIndex {
+
+    /**
+     * The node for the empty prefix, which every item with at least one value passes through.
+     */
+    private Node root = new Node();
+
+    /**
+     * The number of items indexed.
+     *
+     * @see #size()
+     */
+    private int size;
+
+    /**
+     * The modification count of {@code FilterKeys} when the index was built.
+     *
+     * @see #isOutdated()
+     */
+    private long modificationCount;
+
+    /**
+     * The items indexed, kept to build the indexes of single headings.
+     */
+    private List<? extends Filterable> items;
+
+    /**
+     * A hash map from heading to the node for the empty prefix of the values under that heading.
+     *
+     * @see #matchField(String, String)
+     */
+    private HashMap<String, Node> fieldRoots = new HashMap<>();
+
+    /**
+     * A hash map from heading to the values under that heading in order of their sort keys.
+     *
+     * @see #matchRange(String, SortKey, boolean, SortKey, boolean)
+     */
+    private HashMap<String, SortedField> sortedFields = new HashMap<>();
+
+    /**
+     * A hash map from heading to the trigram index over the values under that heading. The index over all
+     * values is under the {@code null} key.
+     *
+     * @see #matchFuzzy(String, Set)
+     */
+    private HashMap<String, TrigramIndex> trigramIndexes = new HashMap<>();
+
+    /**
+     * A hash map from each word of the documents of the items to the positions of the items that have a
+     * document containing it, or {@code null} if documents have not been searched yet.
+     *
+     * @see #matchText(Set)
+     */
+    private HashMap<String, BitSet> textPostings;
+
+    /**
+     * The positions of the items that are {@code TextSearchable}, collected along with {@code textPostings}.
+     */
+    private BitSet textSearchable;
+
+    /**
+     * The value of {@code DocumentManager.getWordsModificationCount()} when {@code textPostings} were last
+     * brought up to date.
+     *
+     * @see #updateTextPostings()
+     */
+    private long textVersion;
+
+    /**
+     * Build the index over the search values of {@code items}.
+     *
+     * @param items the items to be indexed
+     * @see Filterable#getFilterKeys()
+     */
+    FilterIndex(List<? extends Filterable> items) {
+        this.items = items;
+        size = items.size();
+        modificationCount = FilterKeys.getModificationCount();
+        for (int i = 0; i < size; i++) {
+            for (String searchKey : items.get(i).getFilterKeys().getSearchKeys()) {
+                if (searchKey != null) insert(root, searchKey, i);
+            }
+        }
+    }
+
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Return whether the index may no longer match its items, because items were added or removed, or
+     * some {@code Filterable} dropped its {@code FilterKeys} since the index was built.
+     *
+     * @return whether the index needs to be built again
+     * @see FilterKeys#markModified()
+     */
+    boolean isOutdated() {
+        return size != items.size() || modificationCount != FilterKeys.getModificationCount();
+    }
+
+    /**
+     * Add every prefix of a value to a trie for the item at {@code position}.
+     *
+     * @param root     the node for the empty prefix of the trie
+     * @param value    the lower-cased value
+     * @param position the position of the item the value belongs to
+     */
+    private void insert(Node root, String value, int position) {
+        Node node = root;
+        node.add(position);
+        for (int i = 0; i < value.length(); i++) {
+            node = node.children.computeIfAbsent(value.charAt(i), c -> new Node());
+            node.add(position);
+        }
+    }
+
+    /**
+     * Return the positions of the items that have a value starting with {@code keyword}.
+     *
+     * @param keyword the lower-cased keyword to be matched
+     * @return the positions of the matched items
+     */
+    BitSet match(String keyword) {
+        return match(root, keyword);
+    }
+
+    /**
+     * Return the positions of the items whose value under {@code heading} starts with {@code keyword}.
+     *
+     * @param heading the heading
+     * @param keyword the lower-cased keyword to be matched
+     * @return the positions of the matched items
+     */
+    BitSet matchField(String heading, String keyword) {
+        Node fieldRoot = fieldRoots.get(heading);
+        if (fieldRoot == null) {
+            fieldRoot = new Node();
+            for (int i = 0; i < size; i++) {
+                String searchKey = items.get(i).getFilterKeys().getSearchKey(heading);
+                if (searchKey != null) insert(fieldRoot, searchKey, i);
+            }
+            fieldRoots.put(heading, fieldRoot);
+        }
+        return match(fieldRoot, keyword);
+    }
+
+    /**
+     * Return the positions of the items whose value under {@code heading} has a sort key between
+     * {@code lower} and {@code upper}.
+     *
+     * @param heading        the heading
+     * @param lower          the lowest sort key, or {@code null} if there is no lower bound
+     * @param lowerInclusive whether {@code lower} itself is in the range
+     * @param upper          the highest sort key, or {@code null} if there is no upper bound
+     * @param upperInclusive whether {@code upper} itself is in the range
+     * @return the positions of the matched items
+     * @see model.interfaces.FilterKeys#getSortKey(String)
+     */
+    BitSet matchRange(String heading, SortKey lower, boolean lowerInclusive, SortKey upper, boolean upperInclusive) {
+        SortedField sortedField = sortedFields.computeIfAbsent(heading, SortedField::new);
+        int from = lower == null ? 0 : sortedField.search(lower, !lowerInclusive);
+        int to = upper == null ? sortedField.sortKeys.length : sortedField.search(upper, upperInclusive);
+        BitSet matched = new BitSet(size);
+        for (int i = from; i < to; i++) {
+            matched.set(sortedField.positions[i]);
+        }
+        return matched;
+    }
+
+    /**
+     * Return the positions of the items that have, for every keyword, a similar word in their values.
+     *
+     * @param heading  the heading whose values are searched, or {@code null} for all values
+     * @param keywords the lower-cased keywords
+     * @return the positions of the matched items
+     * @see TrigramIndex#match(Set)
+     */
+    BitSet matchFuzzy(String heading, Set<String> keywords) {
+        return trigramIndexes.computeIfAbsent(heading, h -> new TrigramIndex(items, h)).match(keywords);
+    }
+
+    /**
+     * Return the positions of the items that have, for every word, a document containing it.
+     *
+     * @param words the lower-cased words
+     * @return the positions of the matched items
+     * @see TextSearchable#getWords()
+     */
+    BitSet matchText(Set<String> words) {
+        if (textPostings != null && textVersion != DocumentManager.getWordsModificationCount()) {
+            updateTextPostings();
+        } else if (textPostings == null) {
+            textVersion = DocumentManager.getWordsModificationCount();
+            textPostings = new HashMap<>();
+            textSearchable = new BitSet(size);
+            for (int i = 0; i < size; i++) {
+                if (!(items.get(i) instanceof TextSearchable)) continue;
+                textSearchable.set(i);
+                for (String word : ((TextSearchable) items.get(i)).getWords()) {
+                    textPostings.computeIfAbsent(word, w -> new BitSet(size)).set(i);
+                }
+            }
+        }
+        BitSet matched = (BitSet) textSearchable.clone();
+        for (String word : words) {
+            BitSet postings = textPostings.get(word);
+            if (postings == null) return new BitSet(size);
+            matched.and(postings);
+        }
+        return matched;
+    }
+
+    /**
+     * Index again the words of the items whose documents were added or removed since {@code textPostings}
+     * were last brought up to date. Their positions are taken out of every posting list before their
+     * current words are put back in.
+     *
+     * @see TextSearchable#getWordsVersion()
+     */
+    private void updateTextPostings() {
+        long version = textVersion;
+        textVersion = DocumentManager.getWordsModificationCount();
+        for (int i = textSearchable.nextSetBit(0); i >= 0; i = textSearchable.nextSetBit(i + 1)) {
+            TextSearchable item = (TextSearchable) items.get(i);
+            if (item.getWordsVersion() <= version) continue;
+            Iterator<BitSet> postings = textPostings.values().iterator();
+            while (postings.hasNext()) {
+                BitSet positions = postings.next();
+                positions.clear(i);
+                if (positions.isEmpty()) postings.remove();
+            }
+            for (String word : item.getWords()) {
+                textPostings.computeIfAbsent(word, w -> new BitSet(size)).set(i);
+            }
+        }
+    }
+
+    /**
+     * Return the positions of the items that have a value under {@code heading}, in order of the sort keys
+     * of those values. The array is the one kept by the index and must not be changed.
+     *
+     * @param heading the heading
+     * @return the positions of the items in order
+     * @see model.interfaces.FilterKeys#getSortKey(String)
+     */
+    int[] getSortedPositions(String heading) {
+        return sortedFields.computeIfAbsent(heading, SortedField::new).positions;
+    }
+
+    /**
+     * Return the positions of the items that have a value starting with {@code keyword} in a trie.
+     *
+     * @param root    the node for the empty prefix of the trie
+     * @param keyword the lower-cased keyword to be matched
+     * @return the positions of the matched items
+     */
+    private BitSet match(Node root, String keyword) {
+        BitSet matched = new BitSet(size);
+        Node node = find(root, keyword);
+        if (node != null) node.addTo(matched);
+        return matched;
+    }
+
+    /**
+     * Return the node a prefix ends at in a trie.
+     *
+     * @param root   the node for the empty prefix of the trie
+     * @param prefix the lower-cased prefix
+     * @return the node of {@code prefix}, or {@code null} if no value starts with it
+     */
+    private Node find(Node root, String prefix) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        return node;
+    }
+
+    /**
+     * Class {@code Node} is a node of the trie.
+     */
+    private static class Node {
+
+        private HashMap<Character, Node> children = new HashMap<>();
+
+        private int[] positions = new int[1];
+
+        private int count;
+
+        /**
+         * Add the position of an item. Items are indexed in order, so a position that is already
+         * there is always the last one.
+         *
+         * @param position the position of the item
+         */
+        private void add(int position) {
+            if (count > 0 && positions[count - 1] == position) return;
+            if (count == positions.length) positions = Arrays.copyOf(positions, count * 2);
+            positions[count++] = position;
+        }
+
+        private void addTo(BitSet matched) {
+            for (int i = 0; i < count; i++) {
+                matched.set(positions[i]);
+            }
+        }
+    }
+
+    /**
+     * Class {@code SortedField} is the values under one heading, sorted by their sort keys, with the
+     * positions of the items they belong to.
+     */
+    private class SortedField {
+
+        private SortKey[] sortKeys;
+
+        private int[] positions;
+
+        /**
+         * Sort the values under {@code heading}. Items without a value under it are left out.
+         *
+         * @param heading the heading
+         */
+        private SortedField(String heading) {
+            Integer[] order = new Integer[size];
+            SortKey[] keys = new SortKey[size];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                keys[i] = items.get(i).getFilterKeys().getSortKey(heading);
+                if (keys[i] != null) order[count++] = i;
+            }
+            Arrays.sort(order, 0, count, Comparator.comparing(i -> keys[i]));
+            sortKeys = new SortKey[count];
+            positions = new int[count];
+            for (int i = 0; i < count; i++) {
+                positions[i] = order[i];
+                sortKeys[i] = keys[order[i]];
+            }
+        }
+
+        /**
+         * Return the number of sort keys before {@code sortKey}, counting those equal to it if and only if
+         * {@code after} is true.
+         *
+         * @param sortKey the sort key to be searched for
+         * @param after   whether the sort keys equal to {@code sortKey} are counted
+         * @return the position in {@code sortKeys} where the search ends
+         */
+        private int search(SortKey sortKey, boolean after) {
+            int low = 0;
+            int high = sortKeys.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                int comparison = sortKeys[middle].compareTo(sortKey);
+                if (comparison < 0 || (after && comparison == 0)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -3,12 +3,17 @@ package gui.panels;
 import model.interfaces.Filterable;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.event.ListSelectionListener;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.table.AbstractTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * Class {@code FilterPanel} setup gui panel for showing a list of instances(filterable)
@@ -25,6 +30,9 @@ public class FilterPanel<T extends Filterable> extends JPanel {
     private static final int SEARCH_BUTTON_WIDTH = 80;
     private static final int SEARCH_BUTTON_HEIGHT = 30;
 
+    // The number of milliseconds typing must pause before the filter is searched again
+    private static final int SEARCH_DELAY = 150;
+
     /**
      * The filter that calculate remaining instance.
      *
@@ -32,6 +40,7 @@ public class FilterPanel<T extends Filterable> extends JPanel {
      * @see SearchListener
      * @see #getFilter()
      * @see #update()
+     * @see #refine()
      * @see #setFilterContent(ArrayList)
      */
     private Filter<T> filter = new Filter<>();
@@ -47,13 +56,13 @@ public class FilterPanel<T extends Filterable> extends JPanel {
     private JTable filterTable = new JTable();
 
     /**
-     * The table model that updates result in filter table
+     * The table model that shows the results of {@code filter} in filter table
      *
-     * @see NotEditableTableModel
-     * @see #update()
+     * @see ResultTableModel
+     * @see #showResults()
      * @see #filterTableSetup(Dimension)
      */
-    private DefaultTableModel tableModel = new NotEditableTableModel();
+    private ResultTableModel tableModel = new ResultTableModel();
 
     /**
      * Create a {@code FilterPanel} with given dimension and title.
@@ -69,7 +78,7 @@ public class FilterPanel<T extends Filterable> extends JPanel {
         return filterTable;
     }
 
-    private DefaultTableModel getTableModel() {
+    private ResultTableModel getTableModel() {
         return tableModel;
     }
 
@@ -81,15 +90,26 @@ public class FilterPanel<T extends Filterable> extends JPanel {
      * Update the content of filter panel.
      */
     private void update() {
-        getTableModel().setRowCount(0);
-        Filter<T> filter = getFilter();
-        filter.filter();
-        String[] headings = filter.getHeadings();
-        if (headings == null) return;
-        getTableModel().setColumnIdentifiers(headings);
-        for (T result : getFilter().getResults()) {
-            getTableModel().addRow(filter.getSearchValues(result, headings));
-        }
+        getFilter().filter();
+        showResults();
+    }
+
+    /**
+     * Update the content of filter panel while the user is typing, filtering through the last results only
+     * when the search allows it.
+     *
+     * @see Filter#refine()
+     */
+    private void refine() {
+        getFilter().refine();
+        showResults();
+    }
+
+    /**
+     * Show the results of the last search in the filter table.
+     */
+    private void showResults() {
+        getTableModel().showResults(getFilter().getHeadings());
         updateUI();
     }
 
@@ -121,18 +141,21 @@ public class FilterPanel<T extends Filterable> extends JPanel {
     }
 
     /**
-     * Add a search section with a new JButton with a new SearchListener in it.
+     * Add a search section with a new JButton with a new SearchListener in it. The same SearchListener
+     * searches as the user types in the text field.
      *
      * @param width the width of the searchSection
      * @see #setup(Dimension, String)
      */
     private void searchSectionSetup(int width) {
-        JTextField textField = new JTextField("XXX; XX; XXX");
+        JTextField textField = new JTextField("XXX XX; XXX AND heading:XXX");
         textField.setPreferredSize(new Dimension(width - SEARCH_BUTTON_WIDTH - 10, SEARCH_BUTTON_HEIGHT));
 
         JButton button = new JButton("Search");
         button.setPreferredSize(new Dimension(SEARCH_BUTTON_WIDTH, SEARCH_BUTTON_HEIGHT));
-        button.addActionListener(new SearchListener(textField));
+        SearchListener searchListener = new SearchListener(textField);
+        button.addActionListener(searchListener);
+        textField.getDocument().addDocumentListener(searchListener);
 
         add(button);
         add(textField);
@@ -146,6 +169,8 @@ public class FilterPanel<T extends Filterable> extends JPanel {
     private void filterTableSetup(Dimension dimension) {
         JTable filterTable = getFilterTable();
         filterTable.setModel(getTableModel());
+        filterTable.getTableHeader().addMouseListener(new SortListener());
+        getFilter().setVisibleRows(dimension.height / filterTable.getRowHeight() + 1);
         JScrollPane scrollPane = new JScrollPane(filterTable);
         scrollPane.setPreferredSize(dimension);
         add(scrollPane);
@@ -161,6 +186,19 @@ public class FilterPanel<T extends Filterable> extends JPanel {
         return getFilter().getSelectedItem(index);
     }
 
+    /**
+     * Return the selected objects in the filter table, in the order they are shown.
+     *
+     * @return the selected objects in the filter table, empty if nothing is selected
+     */
+    public ArrayList<T> getSelectObjects() {
+        ArrayList<T> selected = new ArrayList<>();
+        for (int index : getFilterTable().getSelectedRows()) {
+            selected.add(getFilter().getSelectedItem(index));
+        }
+        return selected;
+    }
+
     public void addSelectionListener(ListSelectionListener listener) {
         getFilterTable().getSelectionModel().addListSelectionListener(listener);
     }
@@ -170,28 +208,153 @@ public class FilterPanel<T extends Filterable> extends JPanel {
         update();
     }
 
-    private class NotEditableTableModel extends DefaultTableModel {
+    /**
+     * Class {@code ResultTableModel} is the table model of filter table. It does not copy the results of
+     * {@code filter}, but reads each cell from them when the table paints it, so only the rows in sight
+     * are ever read, and only the results up to them are taken from the index, or sorted. Cells are not
+     * editable.
+     */
+    private class ResultTableModel extends AbstractTableModel {
+
+        /**
+         * The headings of the columns.
+         */
+        private String[] headings = new String[0];
+
+        /**
+         * The column results are sorted by, or -1 if they are not sorted.
+         *
+         * @see SortListener
+         */
+        private int sortColumn = -1;
+
+        private boolean sortDescending;
+
+        /**
+         * Tell the table the results of {@code filter} have changed. The columns are set up again only if
+         * the headings have changed, and then results are no longer sorted.
+         *
+         * @param headings the headings of the results, or {@code null} to keep the current ones
+         */
+        private void showResults(String[] headings) {
+            if (headings != null && !Arrays.equals(this.headings, headings)) {
+                this.headings = headings;
+                if (sortColumn != -1) {
+                    sortColumn = -1;
+                    getFilter().setSortOrder(null, false);
+                }
+                fireTableStructureChanged();
+            } else {
+                fireTableDataChanged();
+            }
+        }
+
+        /**
+         * Sort results by a column, ascending at first and the other way round when the column is
+         * sorted by again, and mark the column in the table header.
+         *
+         * @param column the column to sort by
+         * @see Filter#setSortOrder(String, boolean)
+         */
+        private void sortBy(int column) {
+            sortDescending = column == sortColumn && !sortDescending;
+            sortColumn = column;
+            getFilter().setSortOrder(headings[column], sortDescending);
+            fireTableDataChanged();
+            for (int i = 0; i < getFilterTable().getColumnCount(); i++) {
+                int modelColumn = getFilterTable().convertColumnIndexToModel(i);
+                String mark = modelColumn != sortColumn ? "" : sortDescending ? " \u25BC" : " \u25B2";
+                getFilterTable().getColumnModel().getColumn(i).setHeaderValue(headings[modelColumn] + mark);
+            }
+            getFilterTable().getTableHeader().repaint();
+        }
+
+        @Override
+        public int getRowCount() {
+            return getFilter().getResultCount();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return headings.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return headings[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            return getFilter().getSearchValue(getFilter().getResult(row), headings[column]);
+        }
+    }
+
+    /**
+     * Class {@code SortListener} sorts results by the column whose header is clicked.
+     */
+    private class SortListener extends MouseAdapter {
+
         @Override
-        public boolean isCellEditable(int row, int column) {
-            return false;
+        public void mouseClicked(MouseEvent e) {
+            int column = getFilterTable().columnAtPoint(e.getPoint());
+            if (column == -1) return;
+            getTableModel().sortBy(getFilterTable().convertColumnIndexToModel(column));
         }
     }
 
     /**
-     * Class {@code SearchListener} is the {@code ActionListener} for searching.
+     * Class {@code SearchListener} is the {@code ActionListener} for searching, and the
+     * {@code DocumentListener} that searches as the user types.
+     * <p>
+     * Each edit of the text field restarts {@code timer}, so a search only runs once typing pauses for
+     * {@code SEARCH_DELAY} milliseconds, and the searches for the text typed in between are dropped
+     * before they start.
      */
-    private class SearchListener implements ActionListener {
+    private class SearchListener implements ActionListener, DocumentListener {
 
         private JTextField textField;
 
+        /**
+         * The timer that searches once typing pauses.
+         */
+        private Timer timer;
+
         private SearchListener(JTextField textField) {
             this.textField = textField;
+            timer = new Timer(SEARCH_DELAY, e -> search());
+            timer.setRepeats(false);
+        }
+
+        /**
+         * Search for the text in the text field, unless the results shown are already for it.
+         */
+        private void search() {
+            String filterString = textField.getText();
+            if (filterString.equals(getFilter().getFilterString())) return;
+            getFilter().setFilterString(filterString);
+            refine();
         }
 
         @Override
         public void actionPerformed(ActionEvent e) {
+            timer.stop();
             getFilter().setFilterString(textField.getText());
             update();
         }
+
+        @Override
+        public void insertUpdate(DocumentEvent e) {
+            timer.restart();
+        }
+
+        @Override
+        public void removeUpdate(DocumentEvent e) {
+            timer.restart();
+        }
+
+        @Override
+        public void changedUpdate(DocumentEvent e) {
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,876 @@
+package gui.panels;
+
+import model.interfaces.FilterKeys;
+import model.interfaces.Filterable;
+import model.interfaces.SortKey;
+import model.interfaces.TextSearchable;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Class {@code FilterQuery} is a search typed into a {@code FilterPanel}, compiled once into a tree of
+ * terms that can be answered either from a {@code FilterIndex} or by checking each item.
+ * <p>
+ * A query is made of terms:
+ * <ul>
+ * <li>{@code acme} matches items with a value starting with "acme", under any heading. Words separated
+ * only by spaces are one keyword, so {@code software engineer} matches items with a value starting with
+ * "software engineer";</li>
+ * <li>{@code company:acme} matches items whose value under "company" starts with "acme";</li>
+ * <li>{@code status=pending} matches items whose value under "status" is "pending";</li>
+ * <li>{@code close date>2019-09-01} matches items whose value under "close date" comes after
+ * "2019-09-01", and likewise for {@code >=}, {@code <} and {@code <=}. Values are compared by their
+ * {@code SortKey}, so whole numbers are compared by their value and dates by time;</li>
+ * <li>{@code ~recuiter} matches items with a word similar to "recuiter" in any value, and
+ * {@code real name~jon} those with a word similar to "jon" under "real name". Such terms tolerate typos
+ * and match words in the middle of a value, and the results are ranked by similarity;</li>
+ * <li>{@code text:java} matches items with a document containing the word "java", if the items are
+ * {@code TextSearchable}. With several words, as in {@code text:"java kubernetes"}, every word must be
+ * in some document.</li>
+ * </ul>
+ * Terms separated by {@code AND} must all match, and groups of terms separated by {@code ;} or
+ * {@code OR} match if any of them matches, so {@code software engineer; designer} searches for either
+ * keyword as before. A term on a heading ends at the first space, and the terms around it must all match
+ * as well. A term or a group in parentheses can be negated by {@code -} or {@code NOT}. A value with
+ * spaces under a heading can be put in double quotes. Headings and values are not case-sensitive, and
+ * something that is not a heading of the items is searched for as a value.
+ * <p>
+ * Queries are compiled as they are typed, so an incomplete query is never an error: a missing
+ * parenthesis or quote is closed at the end, and an empty query matches everything.
+ *
+ * @author group 0120 of CSC207 summer 2019
+ * @see Filter
+ * @see FilterIndex
+ * @since 2019-08-16
+ */
+final class FilterQuery {
+
+    // The heading of terms on the words of documents, unless the items have a heading of that name
+    private static final String TEXT_HEADING = "text";
+
+    /**
+     * The term the whole query compiles to.
+     */
+    private Term root;
+
+    private FilterQuery(Term root) {
+        this.root = root;
+    }
+
+    /**
+     * Compile a query.
+     *
+     * @param query    the query as typed
+     * @param headings the headings of the items to be searched, which field terms can refer to
+     * @return the compiled query
+     */
+    static FilterQuery compile(String query, List<String> headings) {
+        return new FilterQuery(new Parser(new Tokenizer(query, headings).tokenize(), headings).parseQuery());
+    }
+
+    /**
+     * Return the positions of the items of {@code index} that match this query.
+     *
+     * @param index the index over the items
+     * @return the positions of the matched items
+     */
+    BitSet match(FilterIndex index) {
+        return root.match(index);
+    }
+
+    /**
+     * Return true if and only if an item matches this query.
+     *
+     * @param item the item
+     * @return true if and only if the item matches this query
+     */
+    boolean matches(Filterable item) {
+        return root.matches(item);
+    }
+
+    /**
+     * Return true if and only if this query has a term on similar words that is not negated, so that its
+     * results should be ranked by {@link #getScore(Filterable)}.
+     *
+     * @return true if and only if results of this query are ranked
+     */
+    boolean isRanked() {
+        return root.isRanked();
+    }
+
+    /**
+     * Return how similar the words of an item are to the keywords of the terms on similar words.
+     *
+     * @param item a matched item
+     * @return the average similarity over the keywords, from 0 to 1
+     */
+    double getScore(Filterable item) {
+        return root.getScore(item.getFilterKeys());
+    }
+
+    /**
+     * Return true if every item that matches this query is known to match {@code previous} as well, as when
+     * the user goes on typing a keyword of {@code previous} or adds a term to it. A false result only means
+     * it is not known.
+     *
+     * @param previous the query searched before
+     * @return true if every item matching this query matches {@code previous}
+     */
+    boolean narrows(FilterQuery previous) {
+        return root.narrows(previous.root);
+    }
+
+    /**
+     * Class {@code Term} is a node of a compiled query.
+     */
+    private abstract static class Term {
+
+        abstract BitSet match(FilterIndex index);
+
+        abstract boolean matches(Filterable item);
+
+        boolean isRanked() {
+            return false;
+        }
+
+        /**
+         * Return how similar the words of an item are to the keywords of the terms on similar words in
+         * this term.
+         *
+         * @param keys the filter keys of the item
+         * @return the similarity, from 0 to 1
+         */
+        double getScore(FilterKeys keys) {
+            return 0;
+        }
+
+        /**
+         * Return true if every item matching this term is known to match {@code previous}. Groups of terms
+         * are taken apart first, and the rest is left to {@link #narrowsTerm(Term)}.
+         *
+         * @param previous the term searched before
+         * @return true if every item matching this term matches {@code previous}
+         */
+        boolean narrows(Term previous) {
+            if (this instanceof AnyOf) {
+                for (Term term : ((AnyOf) this).terms) {
+                    if (!term.narrows(previous)) return false;
+                }
+                return true;
+            }
+            if (previous instanceof AllOf) {
+                for (Term term : ((AllOf) previous).terms) {
+                    if (!narrows(term)) return false;
+                }
+                return true;
+            }
+            if (this instanceof AllOf) {
+                for (Term term : ((AllOf) this).terms) {
+                    if (term.narrows(previous)) return true;
+                }
+                return false;
+            }
+            if (previous instanceof AnyOf) {
+                for (Term term : ((AnyOf) previous).terms) {
+                    if (narrows(term)) return true;
+                }
+                return false;
+            }
+            return narrowsTerm(previous);
+        }
+
+        /**
+         * Return true if every item matching this term is known to match {@code previous}, where neither is
+         * a group of terms.
+         *
+         * @param previous the term searched before
+         * @return true if every item matching this term matches {@code previous}
+         */
+        abstract boolean narrowsTerm(Term previous);
+    }
+
+    /**
+     * Class {@code Prefix} matches items with a value starting with a keyword, under any heading or
+     * under one heading.
+     */
+    private static class Prefix extends Term {
+
+        /**
+         * The heading, or {@code null} for any heading.
+         */
+        private String heading;
+
+        private String keyword;
+
+        private Prefix(String heading, String keyword) {
+            this.heading = heading;
+            this.keyword = keyword;
+        }
+
+        @Override
+        BitSet match(FilterIndex index) {
+            return heading == null ? index.match(keyword) : index.matchField(heading, keyword);
+        }
+
+        @Override
+        boolean matches(Filterable item) {
+            FilterKeys keys = item.getFilterKeys();
+            if (heading != null) return isPrefixOf(keys.getSearchKey(heading));
+            for (String searchKey : keys.getSearchKeys()) {
+                if (isPrefixOf(searchKey)) return true;
+            }
+            return false;
+        }
+
+        private boolean isPrefixOf(String searchKey) {
+            return searchKey != null && searchKey.startsWith(keyword);
+        }
+
+        @Override
+        boolean narrowsTerm(Term previous) {
+            if (!(previous instanceof Prefix)) return false;
+            Prefix prefix = (Prefix) previous;
+            return (prefix.heading == null || prefix.heading.equals(heading)) && keyword.startsWith(prefix.keyword);
+        }
+    }
+
+    /**
+     * Class {@code Range} matches items whose value under a heading has a sort key within bounds.
+     *
+     * @see FilterKeys#getSortKey(String)
+     */
+    private static class Range extends Term {
+
+        private String heading;
+
+        /**
+         * The lowest sort key, or {@code null} if there is no lower bound.
+         */
+        private SortKey lower;
+
+        private boolean lowerInclusive;
+
+        /**
+         * The highest sort key, or {@code null} if there is no upper bound.
+         */
+        private SortKey upper;
+
+        private boolean upperInclusive;
+
+        private Range(String heading, SortKey lower, boolean lowerInclusive, SortKey upper, boolean upperInclusive) {
+            this.heading = heading;
+            this.lower = lower;
+            this.lowerInclusive = lowerInclusive;
+            this.upper = upper;
+            this.upperInclusive = upperInclusive;
+        }
+
+        @Override
+        BitSet match(FilterIndex index) {
+            return index.matchRange(heading, lower, lowerInclusive, upper, upperInclusive);
+        }
+
+        @Override
+        boolean matches(Filterable item) {
+            SortKey sortKey = item.getFilterKeys().getSortKey(heading);
+            if (sortKey == null) return false;
+            if (lower != null) {
+                int comparison = sortKey.compareTo(lower);
+                if (comparison < 0 || (comparison == 0 && !lowerInclusive)) return false;
+            }
+            if (upper != null) {
+                int comparison = sortKey.compareTo(upper);
+                if (comparison > 0 || (comparison == 0 && !upperInclusive)) return false;
+            }
+            return true;
+        }
+
+        @Override
+        boolean narrowsTerm(Term previous) {
+            if (!(previous instanceof Range)) return false;
+            Range range = (Range) previous;
+            return heading.equals(range.heading) && isEqual(lower, range.lower) && lowerInclusive == range.lowerInclusive
+                    && isEqual(upper, range.upper) && upperInclusive == range.upperInclusive;
+        }
+
+        private static boolean isEqual(SortKey bound, SortKey other) {
+            return bound == null ? other == null : other != null && bound.compareTo(other) == 0;
+        }
+    }
+
+    /**
+     * Class {@code Fuzzy} matches items that have, for each of its keywords, a similar word in their
+     * values, under any heading or under one heading.
+     *
+     * @see TrigramIndex
+     */
+    private static class Fuzzy extends Term {
+
+        /**
+         * The heading, or {@code null} for any heading.
+         */
+        private String heading;
+
+        /**
+         * A hash map from each keyword to its trigrams.
+         */
+        private HashMap<String, Set<String>> keywords = new HashMap<>();
+
+        private Fuzzy(String heading, Set<String> keywords) {
+            this.heading = heading;
+            for (String keyword : keywords) {
+                this.keywords.put(keyword, TrigramIndex.getTrigrams(keyword));
+            }
+        }
+
+        @Override
+        BitSet match(FilterIndex index) {
+            return index.matchFuzzy(heading, keywords.keySet());
+        }
+
+        @Override
+        boolean matches(Filterable item) {
+            Set<String> words = TrigramIndex.getWords(item.getFilterKeys(), heading);
+            for (Set<String> trigrams : keywords.values()) {
+                if (TrigramIndex.getBestSimilarity(trigrams, words) < TrigramIndex.THRESHOLD) return false;
+            }
+            return true;
+        }
+
+        @Override
+        boolean isRanked() {
+            return true;
+        }
+
+        @Override
+        double getScore(FilterKeys keys) {
+            if (keywords.isEmpty()) return 0;
+            Set<String> words = TrigramIndex.getWords(keys, heading);
+            double score = 0;
+            for (Set<String> trigrams : keywords.values()) {
+                score += TrigramIndex.getBestSimilarity(trigrams, words);
+            }
+            return score / keywords.size();
+        }
+
+        /**
+         * Typing on can make a keyword similar to words it was not similar to before, so only a term with
+         * the same keywords is known to narrow another.
+         */
+        @Override
+        boolean narrowsTerm(Term previous) {
+            if (!(previous instanceof Fuzzy)) return false;
+            Fuzzy fuzzy = (Fuzzy) previous;
+            boolean sameHeading = fuzzy.heading == null || fuzzy.heading.equals(heading);
+            return sameHeading && keywords.keySet().equals(fuzzy.keywords.keySet());
+        }
+    }
+
+    /**
+     * Class {@code Text} matches items that have documents containing all of its words. Checked item by
+     * item, each item answers from the inverted index of its documents. Through a {@code FilterIndex}, the
+     * posting lists of the words are intersected instead.
+     *
+     * @see FilterIndex#matchText(Set)
+     *
+     * @see TextSearchable
+     */
+    private static class Text extends Term {
+
+        private Set<String> words;
+
+        private Text(Set<String> words) {
+            this.words = words;
+        }
+
+        @Override
+        BitSet match(FilterIndex index) {
+            return index.matchText(words);
+        }
+
+        @Override
+        boolean matches(Filterable item) {
+            if (!(item instanceof TextSearchable)) return false;
+            for (String word : words) {
+                if (!((TextSearchable) item).containsWord(word)) return false;
+            }
+            return true;
+        }
+
+        @Override
+        boolean narrowsTerm(Term previous) {
+            return previous instanceof Text && words.containsAll(((Text) previous).words);
+        }
+    }
+
+    /**
+     * Class {@code Not} matches the items another term does not match.
+     */
+    private static class Not extends Term {
+
+        private Term term;
+
+        private Not(Term term) {
+            this.term = term;
+        }
+
+        @Override
+        BitSet match(FilterIndex index) {
+            BitSet matched = term.match(index);
+            matched.flip(0, index.size());
+            return matched;
+        }
+
+        @Override
+        boolean matches(Filterable item) {
+            return !term.matches(item);
+        }
+
+        @Override
+        boolean narrowsTerm(Term previous) {
+            return previous instanceof Not && ((Not) previous).term.narrows(term);
+        }
+    }
+
+    /**
+     * Class {@code AllOf} matches the items all of its terms match. Without terms, it matches every item.
+     */
+    private static class AllOf extends Term {
+
+        private List<Term> terms;
+
+        private AllOf(List<Term> terms) {
+            this.terms = terms;
+        }
+
+        @Override
+        BitSet match(FilterIndex index) {
+            BitSet matched = new BitSet(index.size());
+            matched.set(0, index.size());
+            for (Term term : terms) {
+                matched.and(term.match(index));
+                if (matched.isEmpty()) break;
+            }
+            return matched;
+        }
+
+        @Override
+        boolean matches(Filterable item) {
+            for (Term term : terms) {
+                if (!term.matches(item)) return false;
+            }
+            return true;
+        }
+
+        @Override
+        boolean isRanked() {
+            for (Term term : terms) {
+                if (term.isRanked()) return true;
+            }
+            return false;
+        }
+
+        @Override
+        double getScore(FilterKeys keys) {
+            double score = 0;
+            for (Term term : terms) {
+                score = Math.max(score, term.getScore(keys));
+            }
+            return score;
+        }
+
+        @Override
+        boolean narrowsTerm(Term previous) {
+            return false;
+        }
+    }
+
+    /**
+     * Class {@code AnyOf} matches the items at least one of its terms matches.
+     */
+    private static class AnyOf extends Term {
+
+        private List<Term> terms;
+
+        private AnyOf(List<Term> terms) {
+            this.terms = terms;
+        }
+
+        @Override
+        BitSet match(FilterIndex index) {
+            BitSet matched = new BitSet(index.size());
+            for (Term term : terms) {
+                matched.or(term.match(index));
+            }
+            return matched;
+        }
+
+        @Override
+        boolean matches(Filterable item) {
+            for (Term term : terms) {
+                if (term.matches(item)) return true;
+            }
+            return false;
+        }
+
+        @Override
+        boolean isRanked() {
+            for (Term term : terms) {
+                if (term.isRanked()) return true;
+            }
+            return false;
+        }
+
+        @Override
+        double getScore(FilterKeys keys) {
+            double score = 0;
+            for (Term term : terms) {
+                score = Math.max(score, term.getScore(keys));
+            }
+            return score;
+        }
+
+        @Override
+        boolean narrowsTerm(Term previous) {
+            return false;
+        }
+    }
+
+    /**
+     * Class {@code Token} is a token of a query: either a symbol, a term on a heading, or a keyword.
+     */
+    private static class Token {
+
+        /**
+         * One of "(", ")", ";", "AND", "NOT", or {@code null} if this token is a term.
+         */
+        private String symbol;
+
+        /**
+         * The heading of a term on a heading, or {@code null}.
+         */
+        private String heading;
+
+        /**
+         * The comparison of a term on a heading, one of ":", "=", "<", "<=", ">", ">=", "~", or "~" for a
+         * term on similar words under any heading.
+         */
+        private String comparison;
+
+        /**
+         * The lower-cased value of a term.
+         */
+        private String value;
+
+        private static Token symbol(String symbol) {
+            Token token = new Token();
+            token.symbol = symbol;
+            return token;
+        }
+
+        private static Token term(String heading, String comparison, String value) {
+            Token token = new Token();
+            token.heading = heading;
+            token.comparison = comparison;
+            token.value = value;
+            return token;
+        }
+
+        private boolean is(String symbol) {
+            return symbol.equals(this.symbol);
+        }
+    }
+
+    /**
+     * Class {@code Tokenizer} splits a query into tokens.
+     */
+    private static class Tokenizer {
+
+        private String query;
+
+        /**
+         * The headings terms can refer to, longest first, so that a heading is not taken for another
+         * heading it starts with.
+         */
+        private List<String> headings;
+
+        private int position;
+
+        private Tokenizer(String query, List<String> headings) {
+            this.query = query;
+            this.headings = new ArrayList<>(headings);
+            if (!headings.contains(TEXT_HEADING)) this.headings.add(TEXT_HEADING);
+            this.headings.sort((heading, other) -> other.length() - heading.length());
+        }
+
+        private ArrayList<Token> tokenize() {
+            ArrayList<Token> tokens = new ArrayList<>();
+            while (true) {
+                while (position < query.length() && Character.isWhitespace(query.charAt(position))) position++;
+                if (position == query.length()) return tokens;
+                char c = query.charAt(position);
+                if (c == '(' || c == ')' || c == ';') {
+                    position++;
+                    tokens.add(Token.symbol(String.valueOf(c)));
+                } else if (c == '-' && position + 1 < query.length()
+                        && !Character.isWhitespace(query.charAt(position + 1))) {
+                    position++;
+                    tokens.add(Token.symbol("NOT"));
+                } else {
+                    tokens.add(readTerm());
+                }
+            }
+        }
+
+        /**
+         * Read a term on a heading, a keyword, or one of the words "AND", "OR" and "NOT".
+         *
+         * @return the token read
+         */
+        private Token readTerm() {
+            String heading = getHeading(position);
+            if (heading != null) {
+                String comparison = getComparison(position + heading.length());
+                position += heading.length() + comparison.length();
+                return Token.term(heading, comparison, readValue());
+            }
+            if (query.charAt(position) == '~') {
+                position++;
+                return Token.term(null, "~", readValue());
+            }
+            if (query.charAt(position) == '"') return Token.term(null, null, readValue());
+            int start = position;
+            String word = readWord();
+            if (word.equals("AND") || word.equals("NOT")) return Token.symbol(word);
+            if (word.equals("OR")) return Token.symbol(";");
+            int end = position;
+            while (true) {
+                while (position < query.length() && Character.isWhitespace(query.charAt(position))) position++;
+                if (!isKeyword(position)) break;
+                readValue();
+                end = position;
+            }
+            position = end;
+            return Token.term(null, null, query.substring(start, end).toLowerCase());
+        }
+
+        /**
+         * Return true if a word at a position of the query goes on the keyword before it, that is, if it is
+         * not a symbol, a term on a heading, a term on similar words, a quoted value, or one of the words
+         * "AND", "OR" and "NOT".
+         *
+         * @param position the position after the spaces following the keyword
+         * @return true if the word at {@code position} is part of the keyword
+         */
+        private boolean isKeyword(int position) {
+            if (position == query.length()) return false;
+            char c = query.charAt(position);
+            if (c == '(' || c == ')' || c == ';' || c == '~' || c == '"') return false;
+            if (c == '-' && position + 1 < query.length() && !Character.isWhitespace(query.charAt(position + 1))) {
+                return false;
+            }
+            if (getHeading(position) != null) return false;
+            int start = this.position;
+            this.position = position;
+            String word = readWord();
+            this.position = start;
+            return !word.equals("AND") && !word.equals("OR") && !word.equals("NOT");
+        }
+
+        /**
+         * Return the heading a term on a heading at a position of the query refers to.
+         *
+         * @param position the position
+         * @return the heading, or {@code null} if no term on a heading starts at {@code position}
+         */
+        private String getHeading(int position) {
+            for (String heading : headings) {
+                int end = position + heading.length();
+                if (query.regionMatches(true, position, heading, 0, heading.length()) && end < query.length()
+                        && getComparison(end) != null) {
+                    return heading;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Read an unquoted value as typed, without lower-casing it.
+         *
+         * @return the value as typed
+         * @see #readValue()
+         */
+        private String readWord() {
+            int start = position;
+            readValue();
+            return query.substring(start, position);
+        }
+
+        /**
+         * Return the comparison at a position of the query.
+         *
+         * @param position the position
+         * @return the comparison, or {@code null} if there is none
+         */
+        private String getComparison(int position) {
+            for (String comparison : new String[]{"<=", ">=", ":", "=", "<", ">", "~"}) {
+                if (query.startsWith(comparison, position)) return comparison;
+            }
+            return null;
+        }
+
+        /**
+         * Read a value, either in double quotes or up to the next space, ";" or ")" that does not close a
+         * "(" in the value itself, as in "dev(1)".
+         *
+         * @return the lower-cased value
+         */
+        private String readValue() {
+            int start = position;
+            if (position < query.length() && query.charAt(position) == '"') {
+                int end = query.indexOf('"', position + 1);
+                if (end == -1) end = query.length();
+                position = Math.min(end + 1, query.length());
+                return query.substring(start + 1, end).toLowerCase();
+            }
+            int depth = 0;
+            while (position < query.length()) {
+                char c = query.charAt(position);
+                if (Character.isWhitespace(c) || c == ';' || (c == ')' && depth == 0)) break;
+                if (c == '(') depth++;
+                if (c == ')') depth--;
+                position++;
+            }
+            return query.substring(start, position).toLowerCase();
+        }
+    }
+
+    /**
+     * Class {@code Parser} builds the tree of terms from the tokens of a query. {@code NOT} binds tighter
+     * than {@code AND}, which binds tighter than {@code OR}.
+     */
+    private static class Parser {
+
+        private List<Token> tokens;
+
+        /**
+         * The headings of the items, to tell a heading of theirs from {@code TEXT_HEADING}.
+         */
+        private List<String> headings;
+
+        private int position;
+
+        private Parser(List<Token> tokens, List<String> headings) {
+            this.tokens = tokens;
+            this.headings = headings;
+        }
+
+        private Token peek() {
+            return position < tokens.size() ? tokens.get(position) : null;
+        }
+
+        /**
+         * Parse the whole query. A ")" without a matching "(" is ignored.
+         *
+         * @return the term the query compiles to
+         */
+        private Term parseQuery() {
+            ArrayList<Term> groups = new ArrayList<>();
+            while (position < tokens.size()) {
+                groups.addAll(parseAnyOf());
+                if (peek() != null && peek().is(")")) position++;
+            }
+            return anyOf(groups);
+        }
+
+        /**
+         * Parse groups of terms separated by ";", up to a ")" or the end.
+         *
+         * @return the groups parsed, leaving out empty ones
+         */
+        private List<Term> parseAnyOf() {
+            ArrayList<Term> groups = new ArrayList<>();
+            while (peek() != null && !peek().is(")")) {
+                if (peek().is(";")) {
+                    position++;
+                    continue;
+                }
+                ArrayList<Term> terms = new ArrayList<>();
+                while (peek() != null && !peek().is(")") && !peek().is(";")) {
+                    if (peek().is("AND")) {
+                        position++;
+                        continue;
+                    }
+                    Term term = parseNot();
+                    if (term != null) terms.add(term);
+                }
+                if (!terms.isEmpty()) groups.add(terms.size() == 1 ? terms.get(0) : new AllOf(terms));
+            }
+            return groups;
+        }
+
+        /**
+         * Parse a term, a negated term, or a query in parentheses.
+         *
+         * @return the term parsed, or {@code null} if there is nothing to be parsed
+         */
+        private Term parseNot() {
+            Token token = peek();
+            if (token == null || token.is(")") || token.is(";")) return null;
+            position++;
+            if (token.is("NOT")) {
+                Term term = parseNot();
+                return term == null ? null : new Not(term);
+            }
+            if (token.is("AND")) return parseNot();
+            if (token.is("(")) {
+                List<Term> groups = parseAnyOf();
+                if (peek() != null) position++;
+                return groups.isEmpty() ? null : anyOf(groups);
+            }
+            return compileTerm(token);
+        }
+
+        private static Term anyOf(List<Term> groups) {
+            if (groups.size() == 1) return groups.get(0);
+            return groups.isEmpty() ? new AllOf(Collections.emptyList()) : new AnyOf(groups);
+        }
+
+        /**
+         * Compile a term token.
+         *
+         * @param token the token of the term
+         * @return the term
+         */
+        private Term compileTerm(Token token) {
+            if ("~".equals(token.comparison)) {
+                Set<String> keywords = TextSearchable.splitWords(token.value);
+                return keywords.isEmpty() ? new AllOf(Collections.emptyList()) : new Fuzzy(token.heading, keywords);
+            }
+            if (token.heading == null) return new Prefix(null, token.value);
+            if (token.heading.equals(TEXT_HEADING) && !headings.contains(TEXT_HEADING)) {
+                return new Text(TextSearchable.splitWords(token.value));
+            }
+            SortKey sortKey = SortKey.of(token.value);
+            switch (token.comparison) {
+                case "=":
+                    return new Range(token.heading, sortKey, true, sortKey, true);
+                case "<":
+                    return new Range(token.heading, null, false, sortKey, false);
+                case "<=":
+                    return new Range(token.heading, null, false, sortKey, true);
+                case ">":
+                    return new Range(token.heading, sortKey, false, null, false);
+                case ">=":
+                    return new Range(token.heading, sortKey, true, null, false);
+                default:
+                    return new Prefix(token.heading, token.value);
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package gui.panels;
 
+import model.exceptions.CannotReadDocumentException;
 import model.job.Document;
 
 import javax.swing.*;
@@ -62,8 +63,9 @@ public class OutputInfoPanel extends JPanel {
     /**
      * Show the given document on the panel by getting its information from the toString method.
      * @param document the document needed to be performed
+     * @throws CannotReadDocumentException the content of the document can not be read
      */
-    public void showDocument(Document document) {
+    public void showDocument(Document document) throws CannotReadDocumentException {
         OutputInfoPanel outputInfo = new OutputInfoPanel(DOCUMENT_FRAME_SIZE);
         outputInfo.setOutputText(document.getContent());
         new DocumentFrame(document.getDocumentName(), outputInfo);
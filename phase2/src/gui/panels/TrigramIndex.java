@@ -0,0 +1,206 @@
+package gui.panels;
+
+import model.interfaces.FilterKeys;
+import model.interfaces.Filterable;
+import model.interfaces.TextSearchable;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Class {@code TrigramIndex} finds the items with a word in their search values that is similar to a
+ * keyword, so that a search still finds "recruiter" when "recuiter" is typed, and finds a word in the
+ * middle of a value.
+ * <p>
+ * Each word is padded with two spaces in front and one behind and cut into its trigrams, the strings of
+ * three characters in a row. The similarity of two words is the number of trigrams they share divided
+ * by the number of trigrams either of them has. The index maps each trigram to the distinct words that
+ * have it, so the words sharing trigrams with a keyword are counted without comparing the keyword with
+ * every word.
+ *
+ * @author group 0120 of CSC207 summer 2019
+ * @see FilterIndex#matchFuzzy(String, Set)
+ * @see FilterQuery
+ * @since 2019-08-17
+ */
+class TrigramIndex {
+
+    // The least similarity for a word to match a keyword
+    static final double THRESHOLD = 0.3;
+
+    /**
+     * The distinct words of the values indexed.
+     */
+    private ArrayList<String> words = new ArrayList<>();
+
+    /**
+     * The number of trigrams of each word in {@code words}.
+     */
+    private int[] trigramCounts;
+
+    /**
+     * The positions of the items that have each word in {@code words}, in increasing order.
+     */
+    private ArrayList<int[]> positions = new ArrayList<>();
+
+    /**
+     * A hash map from trigram to the positions in {@code words} of the words that have it.
+     */
+    private HashMap<String, int[]> postings = new HashMap<>();
+
+    /**
+     * The number of items indexed.
+     */
+    private int size;
+
+    /**
+     * Build the index over the words of the search values of {@code items}.
+     *
+     * @param items   the items to be indexed
+     * @param heading the heading whose values are indexed, or {@code null} for all values
+     */
+    TrigramIndex(List<? extends Filterable> items, String heading) {
+        size = items.size();
+        HashMap<String, Integer> wordIds = new HashMap<>();
+        ArrayList<ArrayList<Integer>> wordPositions = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            for (String word : getWords(items.get(i).getFilterKeys(), heading)) {
+                Integer id = wordIds.get(word);
+                if (id == null) {
+                    id = words.size();
+                    wordIds.put(word, id);
+                    words.add(word);
+                    wordPositions.add(new ArrayList<>());
+                }
+                ArrayList<Integer> found = wordPositions.get(id);
+                if (found.isEmpty() || found.get(found.size() - 1) != i) found.add(i);
+            }
+        }
+        HashMap<String, ArrayList<Integer>> trigramWords = new HashMap<>();
+        trigramCounts = new int[words.size()];
+        for (int id = 0; id < words.size(); id++) {
+            Set<String> trigrams = getTrigrams(words.get(id));
+            trigramCounts[id] = trigrams.size();
+            for (String trigram : trigrams) {
+                trigramWords.computeIfAbsent(trigram, t -> new ArrayList<>()).add(id);
+            }
+            positions.add(toArray(wordPositions.get(id)));
+        }
+        for (String trigram : trigramWords.keySet()) {
+            postings.put(trigram, toArray(trigramWords.get(trigram)));
+        }
+    }
+
+    private static int[] toArray(ArrayList<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * Return the positions of the items that have, for every keyword, a word similar to it.
+     *
+     * @param keywords the lower-cased keywords
+     * @return the positions of the matched items
+     */
+    BitSet match(Set<String> keywords) {
+        BitSet matched = new BitSet(size);
+        matched.set(0, size);
+        int[] shared = new int[words.size()];
+        for (String keyword : keywords) {
+            BitSet keywordMatched = new BitSet(size);
+            Set<String> trigrams = getTrigrams(keyword);
+            ArrayList<Integer> touched = new ArrayList<>();
+            for (String trigram : trigrams) {
+                int[] ids = postings.get(trigram);
+                if (ids == null) continue;
+                for (int id : ids) {
+                    if (shared[id]++ == 0) touched.add(id);
+                }
+            }
+            for (int id : touched) {
+                if (getSimilarity(shared[id], trigrams.size(), trigramCounts[id]) >= THRESHOLD) {
+                    for (int position : positions.get(id)) {
+                        keywordMatched.set(position);
+                    }
+                }
+                shared[id] = 0;
+            }
+            matched.and(keywordMatched);
+        }
+        return matched;
+    }
+
+    /**
+     * Return the words of the search values of an item.
+     *
+     * @param keys    the filter keys of the item
+     * @param heading the heading whose value is split, or {@code null} for all values
+     * @return the distinct words of the values
+     * @see TextSearchable#splitWords(String)
+     */
+    static Set<String> getWords(FilterKeys keys, String heading) {
+        if (heading != null) {
+            String searchKey = keys.getSearchKey(heading);
+            return searchKey == null ? new LinkedHashSet<>() : TextSearchable.splitWords(searchKey);
+        }
+        LinkedHashSet<String> words = new LinkedHashSet<>();
+        for (String searchKey : keys.getSearchKeys()) {
+            if (searchKey != null) words.addAll(TextSearchable.splitWords(searchKey));
+        }
+        return words;
+    }
+
+    /**
+     * Return the trigrams of a word, padded with two spaces in front and one behind.
+     *
+     * @param word the lower-cased word
+     * @return the distinct trigrams of the word
+     */
+    static Set<String> getTrigrams(String word) {
+        String padded = "  " + word + " ";
+        LinkedHashSet<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    /**
+     * Return the similarity of two words.
+     *
+     * @param shared the number of trigrams both words have
+     * @param count  the number of trigrams of one word
+     * @param other  the number of trigrams of the other word
+     * @return the number of shared trigrams over the number of trigrams either word has
+     */
+    static double getSimilarity(int shared, int count, int other) {
+        return (double) shared / (count + other - shared);
+    }
+
+    /**
+     * Return the similarity of a keyword to the most similar of some words.
+     *
+     * @param trigrams the trigrams of the keyword
+     * @param words    the words
+     * @return the greatest similarity, or 0 if there are no words
+     */
+    static double getBestSimilarity(Set<String> trigrams, Set<String> words) {
+        double best = 0;
+        for (String word : words) {
+            Set<String> wordTrigrams = getTrigrams(word);
+            int shared = 0;
+            for (String trigram : trigrams) {
+                if (wordTrigrams.contains(trigram)) shared++;
+            }
+            best = Math.max(best, getSimilarity(shared, trigrams.size(), wordTrigrams.size()));
+        }
+        return best;
+    }
+}
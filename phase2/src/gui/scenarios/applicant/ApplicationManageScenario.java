@@ -6,11 +6,13 @@ import gui.general.UserMenuFrame;
 import gui.panels.ButtonPanel;
 import gui.panels.FilterPanel;
 import model.enums.ApplicationStatus;
+import model.enums.JournalRecordType;
 import model.exceptions.ApplicationAlreadyExistsException;
 import model.exceptions.WrongApplicationStatusException;
 import model.exceptions.WrongJobPostingStatusException;
 import model.job.Application;
 import model.job.Document;
+import model.storage.JournalRecord;
 import model.user.Applicant;
 
 import javax.swing.event.ListSelectionEvent;
@@ -207,6 +209,8 @@ public class ApplicationManageScenario extends Scenario {
             Application application = leftFilter.getSelectObject();
             try {
                 application.apply(getMain().getEmploymentCenter());
+                record(new JournalRecord(JournalRecordType.APPLY, application.getApplicantId(),
+                        application.getJobPostingId()));
                 update();
                 showMessage("Succeed!");
             } catch (NullPointerException e1) {
@@ -240,6 +244,8 @@ public class ApplicationManageScenario extends Scenario {
             Application application = leftFilter.getSelectObject();
             try {
                 application.cancel(getMain().getEmploymentCenter());
+                record(new JournalRecord(JournalRecordType.CANCEL_APPLICATION, application.getApplicantId(),
+                        application.getJobPostingId()));
                 showMessage("Withdrawal succeeds!");
                 update();
             } catch (NullPointerException e1) {
@@ -266,6 +272,8 @@ public class ApplicationManageScenario extends Scenario {
             Application application = leftFilter.getSelectObject();
             try {
                 applicant.deleteApplication(application);
+                record(new JournalRecord(JournalRecordType.DELETE_APPLICATION, applicant.getUsername(),
+                        application.getJobPostingId()));
                 update();
             } catch (NullPointerException e1) {
                 showMessage("No application selected!");
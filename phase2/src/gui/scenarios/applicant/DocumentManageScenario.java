@@ -4,11 +4,15 @@ import gui.general.Scenario;
 import gui.general.UserMenuFrame;
 import gui.panels.ButtonPanel;
 import gui.panels.FilterPanel;
+import model.enums.JournalRecordType;
 import model.exceptions.CanNotEditDocumentManagerException;
+import model.exceptions.CannotReadDocumentException;
 import model.exceptions.DocumentAlreadyExistsException;
 import model.exceptions.EmptyDocumentNameException;
+import model.job.Application;
 import model.job.Document;
 import model.job.DocumentManager;
+import model.storage.JournalRecord;
 import model.user.Applicant;
 
 import java.awt.*;
@@ -32,6 +36,12 @@ public class DocumentManageScenario extends Scenario {
      * @see DeleteDocumentListener
      */
     private DocumentManager applicantDocumentManager;
+    /**
+     * The {@code Applicant} whose documents are managed.
+     *
+     * @see #getApplicationJobId()
+     */
+    private Applicant applicant;
     /**
      * The {@code DocumentManager} for an {@code application}.
      *
@@ -59,10 +69,12 @@ public class DocumentManageScenario extends Scenario {
      */
     public DocumentManageScenario(UserMenuFrame userMenuFrame, DocumentManager applicationDocument) {
         super(userMenuFrame, "Document Manager");
-        Applicant applicant = (Applicant) getUserMenuFrame().getUser();
+        this.applicant = (Applicant) getUserMenuFrame().getUser();
         this.applicantDocumentManager = applicant.getDocumentManager();
         this.applicationDocumentManager = applicationDocument;
-        this.applicantDocumentManager.updateAllDocuments();
+        if (this.applicantDocumentManager.updateAllDocuments()) {
+            record(new JournalRecord(JournalRecordType.UPDATE_DOCUMENTS, applicant.getUsername()));
+        }
     }
 
     /**
@@ -122,6 +134,19 @@ public class DocumentManageScenario extends Scenario {
     }
 
 
+    /**
+     * Return the id of the job posting whose application owns {@code applicationDocumentManager}.
+     *
+     * @return the id of the job posting, or {@code null} if the documents of the applicant are managed
+     * @see DeleteDocumentListener#actionPerformed(ActionEvent)
+     */
+    private String getApplicationJobId() {
+        for (Application application : applicant.getApplications()) {
+            if (application.getDocumentManager() == applicationDocumentManager) return application.getJobPostingId();
+        }
+        return null;
+    }
+
     /**
      * A helper function of {@link AddDocumentListener#actionPerformed(ActionEvent)}.
      * It gets the name of a chosen file.
@@ -164,10 +189,19 @@ public class DocumentManageScenario extends Scenario {
             }
 
             try {
+                String content = applicationDocumentManager == null ? document.getContent() : null;
                 manager.addDocument(document);
+                if (applicationDocumentManager == null) {
+                    record(new JournalRecord(JournalRecordType.ADD_DOCUMENT, applicant.getUsername(),
+                            document.getDocumentName(), content, document.getDocumentId()));
+                } else {
+                    record(new JournalRecord(JournalRecordType.ATTACH_DOCUMENT, applicant.getUsername(),
+                            getApplicationJobId(), document.getDocumentId()));
+                }
                 update();
                 showMessage("Succeed!");
-            } catch (CanNotEditDocumentManagerException | EmptyDocumentNameException | DocumentAlreadyExistsException e1) {
+            } catch (CanNotEditDocumentManagerException | EmptyDocumentNameException | DocumentAlreadyExistsException |
+                    CannotReadDocumentException e1) {
                 showMessage(e1.getMessage());
             } catch (NullPointerException e1) {
                 showMessage("No document selected!");
@@ -207,6 +241,8 @@ public class DocumentManageScenario extends Scenario {
                 showMessage("No document selected!");
             } else {
                 manager.removeDocument(document);
+                record(new JournalRecord(JournalRecordType.REMOVE_DOCUMENT, applicant.getUsername(),
+                        getApplicationJobId(), document.getDocumentId()));
                 update();
                 showMessage("Succeed!");
             }
@@ -4,10 +4,12 @@ import gui.general.Scenario;
 import gui.general.UserMenuFrame;
 import gui.panels.ButtonPanel;
 import gui.panels.FilterPanel;
+import model.enums.JournalRecordType;
 import model.exceptions.ApplicationAlreadyExistsException;
 import model.job.Application;
 import model.job.JobPosting;
 import model.storage.EmploymentCenter;
+import model.storage.JournalRecord;
 import model.user.Applicant;
 
 import java.awt.event.ActionEvent;
@@ -97,6 +99,8 @@ public class JobSearchingScenario extends Scenario {
             Applicant applicant = (Applicant) getUserMenuFrame().getUser();
             try {
                 applicant.addApplication(jobPosting.getJobId(), new Application(applicant, jobPosting));
+                record(new JournalRecord(JournalRecordType.CREATE_APPLICATION, applicant.getUsername(),
+                        jobPosting.getJobId()));
                 ApplicationManageScenario scenario = new ApplicationManageScenario(getUserMenuFrame());
                 switchScenario(scenario);
             } catch (NullPointerException e1) {
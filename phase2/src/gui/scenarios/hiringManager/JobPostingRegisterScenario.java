@@ -7,9 +7,11 @@ import gui.panels.ButtonPanel;
 import gui.panels.ComponentFactory;
 import gui.panels.InputInfoPanel;
 import main.Main;
+import model.enums.JournalRecordType;
 import model.enums.UserType;
 import model.job.JobPosting;
 import model.storage.EmploymentCenter;
+import model.storage.JournalRecord;
 import model.user.Company;
 import model.user.Employee;
 
@@ -179,13 +181,9 @@ public class JobPostingRegisterScenario extends Scenario {
             HashMap<String, String> values = createJobInfoMap();
             EmploymentCenter employmentCenter = getMain().getEmploymentCenter();
             Employee employee = employmentCenter.getEmployee(values.get("Recruiter:"), UserType.RECRUITER);
-            Company company = getUserMenuFrame().getCompany();
             if (isValidJobInfoMap(values).equals("Good")) {
-                JobPosting jobPosting = new JobPosting(values);
-                employmentCenter.addJobPosting(jobPosting);
-                company.addJobPostingId(jobPosting.getJobId());
-                employee.addFile(jobPosting);
-                employee.receiveMessage("You got a new Job Posting to manage!");
+                employmentCenter.postJobPosting(new JobPosting(values), employee);
+                record(new JournalRecord(JournalRecordType.POST_JOB_POSTING, values, employee.getUsername()));
                 showMessage("Successfully post job!");
                 infoPanel.clear();
             } else {
@@ -7,9 +7,12 @@ import gui.panels.ComponentFactory;
 import gui.panels.FilterPanel;
 import gui.panels.InputInfoPanel;
 import model.enums.InterviewStatus;
+import model.enums.JournalRecordType;
 import model.exceptions.WrongEmployeeTypeException;
+import model.job.Application;
 import model.job.Document;
 import model.job.Interview;
+import model.storage.JournalRecord;
 import model.user.Employee;
 
 import javax.swing.event.ListSelectionEvent;
@@ -192,25 +195,35 @@ public class OngoingInterviewScenario extends Scenario {
         }
 
         /**
-         * Set the result for interview by interviewer.
+         * Set the result for all the selected interviews by interviewer, with the same recommendation.
          *
          * @param e the action event of clicking a button
          * @see #update()
          * @see #getRecommendation()
+         * @see Interview#setResults(java.util.List, InterviewStatus, String)
          */
         @Override
         public void actionPerformed(ActionEvent e) {
             if (withdrawAction()) return;
-            Interview interview = leftFilter.getSelectObject();
-            if (interview != null && interview.getStatus().equals(InterviewStatus.PENDING)) {
-                interview.setStatus(result);
-                interview.setRecommendation(getRecommendation());
-                update();
-                showMessage("Succeed!");
-            } else {
+            String recommendation = getRecommendation();
+            ArrayList<Interview> interviews = Interview.setResults(leftFilter.getSelectObjects(), result,
+                    recommendation);
+            if (interviews.isEmpty()) {
                 showMessage("Can not change!");
+                return;
             }
-
+            ArrayList<String> args = new ArrayList<>();
+            args.add(result.name());
+            args.add(recommendation);
+            for (Interview interview : interviews) {
+                Application application = interview.getApplication();
+                args.add(application.getApplicantId());
+                args.add(application.getJobPostingId());
+                args.add(application.getRoundName(interview));
+            }
+            record(new JournalRecord(JournalRecordType.INTERVIEW_RESULTS, args.toArray(new String[0])));
+            update();
+            showMessage(interviews.size() == 1 ? "Succeed!" : "Set " + interviews.size() + " results!");
         }
     }
 
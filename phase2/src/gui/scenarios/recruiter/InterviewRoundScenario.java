@@ -6,12 +6,13 @@ import gui.panels.ButtonPanel;
 import gui.panels.FilterPanel;
 import model.enums.InterviewRoundStatus;
 import model.enums.JobPostingStatus;
+import model.enums.JournalRecordType;
 import model.exceptions.CurrentRoundUnfinishedException;
 import model.exceptions.JobPostingAlreadyFilledException;
 import model.exceptions.WrongApplicationStatusException;
 import model.exceptions.WrongJobPostingStatusException;
 import model.job.*;
-import model.user.Applicant;
+import model.storage.JournalRecord;
 
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
@@ -179,10 +180,10 @@ public class InterviewRoundScenario extends Scenario {
             if (interviewRound == manager.getCurrentInterviewRound()) {
                 Application application = leftFilter.getSelectObject();
                 try {
-                    manager.hire(application);
-                    Applicant applicant = application.getApplicant(getMain().getEmploymentCenter());
+                    manager.hire(application, getMain().getEmploymentCenter());
+                    record(new JournalRecord(JournalRecordType.HIRE, application.getApplicantId(),
+                            application.getJobPostingId()));
                     showMessage("Succeed!");
-                    applicant.receiveMessage("You got hired by a job!");
                     initLeftFilter();
                 } catch (NullPointerException e1) {
                     showMessage("No application selected!");
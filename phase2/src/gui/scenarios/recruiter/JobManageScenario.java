@@ -7,12 +7,14 @@ import gui.panels.ComponentFactory;
 import gui.panels.FilterPanel;
 import gui.panels.InputInfoPanel;
 import model.enums.JobPostingStatus;
+import model.enums.JournalRecordType;
 import model.exceptions.NextRoundDoesNotExistException;
 import model.exceptions.WrongEmployeeTypeException;
 import model.exceptions.WrongInterviewRoundStatusException;
 import model.exceptions.WrongJobPostingStatusException;
 import model.job.InterviewRound;
 import model.job.JobPosting;
+import model.storage.JournalRecord;
 import model.user.Employee;
 
 import javax.swing.event.ListSelectionEvent;
@@ -238,6 +240,7 @@ public class JobManageScenario extends Scenario {
                 showMessage("The status of job posting is not PROCESSING, can not add round!");
             } else {
                 jobPosting.getInterviewRoundManager().addInterviewRound(new InterviewRound(roundName));
+                record(new JournalRecord(JournalRecordType.ADD_INTERVIEW_ROUND, jobPosting.getJobId(), roundName));
                 showMessage("Succeed!");
                 updateRightFilter();
             }
@@ -268,6 +271,7 @@ public class JobManageScenario extends Scenario {
             JobPosting jobPosting = leftFilter.getSelectObject();
             try {
                 jobPosting.getInterviewRoundManager().nextRound();
+                record(new JournalRecord(JournalRecordType.NEXT_ROUND, jobPosting.getJobId()));
                 updateRightFilter();
                 showMessage("Succeeds");
             } catch (NullPointerException e1) {
@@ -308,8 +312,9 @@ public class JobManageScenario extends Scenario {
             } else if (jobPosting.getStatus().equals(JobPostingStatus.FINISHED)) {
                 showMessage("The job posting has already closed!");
             } else {
-                jobPosting.endJobPosting();
+                jobPosting.endJobPosting(getMain().getEmploymentCenter());
                 jobPosting.notifyAllFailedApplicant(getMain().getEmploymentCenter());
+                record(new JournalRecord(JournalRecordType.END_JOB_POSTING, jobPosting.getJobId()));
                 updateRightFilter();
                 showMessage("The jobPosting is now closed.");
             }
@@ -4,18 +4,22 @@ import gui.general.Scenario;
 import gui.general.UserMenuFrame;
 import gui.panels.ButtonPanel;
 import gui.panels.FilterPanel;
+import model.enums.JournalRecordType;
+import model.exceptions.WrongEmployeeTypeException;
 import model.exceptions.WrongInterviewStatusException;
 import model.job.Application;
 import model.job.Interview;
+import model.job.InterviewMatcher;
 import model.job.InterviewRound;
 import model.storage.EmploymentCenter;
-import model.user.Applicant;
+import model.storage.JournalRecord;
 import model.user.Company;
 import model.user.Employee;
 
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 
 /**
  * Class {@code MatchInterviewScenario} handles the situation of matching interview.
@@ -26,6 +30,9 @@ import java.util.ArrayList;
  */
 public class MatchInterviewScenario extends Scenario {
 
+    // The most pending interviews an interviewer can have after "Match All", unless -Dinterview.cap is given
+    private static final int INTERVIEW_CAP = 20;
+
     /**
      * An {@code InterviewRound} for this scenario.
      *
@@ -81,6 +88,7 @@ public class MatchInterviewScenario extends Scenario {
     protected void initButton() {
         ButtonPanel buttonPanel = new ButtonPanel(BUTTON_PANEL_SIZE);
         buttonPanel.addButton("Match", new MatchListener());
+        buttonPanel.addButton("Match All", new MatchAllListener());
         add(buttonPanel);
     }
 
@@ -138,9 +146,9 @@ public class MatchInterviewScenario extends Scenario {
             Interview interview;
             try {
                 interview = application.getInterviewByRound(interviewRound.getRoundName());
-                interview.match(interviewer, interviewRound.getRoundName());
-                Applicant applicant = application.getApplicant(getMain().getEmploymentCenter());
-                applicant.receiveMessage("You received a new interview!");
+                interview.match(interviewer, interviewRound.getRoundName(), getMain().getEmploymentCenter());
+                record(new JournalRecord(JournalRecordType.MATCH_INTERVIEW, application.getApplicantId(),
+                        application.getJobPostingId(), interviewRound.getRoundName(), interviewer.getUsername()));
                 showMessage("Succeed!");
                 update();
             } catch (NullPointerException e1) {
@@ -150,4 +158,52 @@ public class MatchInterviewScenario extends Scenario {
             }
         }
     }
+
+    /**
+     * Class{@code MatchAllListener} implements ActionListener. It matches every unmatched interview of the round
+     * with the company interviewers at once.
+     *
+     * @author group 0120 of CSC207 summer 2019
+     * @see InterviewMatcher
+     * @since 2019-08-18
+     */
+    private class MatchAllListener implements ActionListener {
+
+        /**
+         * Give each unmatched interview to the interviewer with the fewest pending interviews, then record all
+         * the matches as one change.
+         *
+         * @param e ActionEvent
+         */
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            EmploymentCenter employmentCenter = getMain().getEmploymentCenter();
+            ArrayList<Employee> interviewers =
+                    employmentCenter.getInterviewers(getUserMenuFrame().getCompany().getInterviewerIds());
+            String roundName = interviewRound.getRoundName();
+            try {
+                LinkedHashMap<Application, Employee> assignments = new InterviewMatcher(interviewRound,
+                        interviewers, Integer.getInteger("interview.cap", INTERVIEW_CAP)).assign();
+                if (assignments.isEmpty()) {
+                    showMessage("No interview can be matched!");
+                    return;
+                }
+                InterviewMatcher.match(roundName, assignments, employmentCenter);
+                ArrayList<String> args = new ArrayList<>();
+                args.add(assignments.keySet().iterator().next().getJobPostingId());
+                args.add(roundName);
+                for (Application application : assignments.keySet()) {
+                    args.add(application.getApplicantId());
+                    args.add(assignments.get(application).getUsername());
+                }
+                record(new JournalRecord(JournalRecordType.MATCH_ALL_INTERVIEWS, args.toArray(new String[0])));
+                showMessage("Matched " + assignments.size() + " interviews!");
+            } catch (WrongEmployeeTypeException e1) {
+                showMessage("Some company interviewers are not interviewers!");
+            } catch (WrongInterviewStatusException e1) {
+                showMessage("Status of interview is not UNMATCHED, can not match!");
+            }
+            update();
+        }
+    }
 }
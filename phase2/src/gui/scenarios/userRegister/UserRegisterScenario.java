@@ -5,8 +5,10 @@ import gui.general.UserMenuFrame;
 import gui.panels.ButtonPanel;
 import gui.panels.ComponentFactory;
 import gui.panels.InputInfoPanel;
+import model.enums.JournalRecordType;
 import model.enums.UserType;
 import model.exceptions.*;
+import model.storage.JournalRecord;
 import model.storage.UserFactory;
 import model.user.User;
 
@@ -154,7 +156,9 @@ public class UserRegisterScenario extends Scenario {
         HashMap<String, String> infoMap = infoPanel.getInfoMap();
         infoMap.put("Password:", Arrays.toString(infoPanel.getPassword()));
         if (registerType == null) registerType = UserType.valueOf(infoMap.get("Position:").toUpperCase());
-        return new UserFactory(getMain().getEmploymentCenter()).createUser(infoMap, registerType);
+        User user = new UserFactory(getMain().getEmploymentCenter()).createUser(infoMap, registerType);
+        if (!user.isNull()) record(new JournalRecord(JournalRecordType.REGISTER_USER, infoMap, registerType.name()));
+        return user;
     }
 
     /**
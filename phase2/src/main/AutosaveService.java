@@ -0,0 +1,131 @@
+package main;
+
+import model.exceptions.CannotSaveSystemException;
+
+import javax.swing.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Class {@code AutosaveService} saves changes in the background, so that they are not lost if the system is not
+ * restarted through the "Restart" button, and so that saving does not freeze the window.
+ * <p>
+ * A Swing timer checks every second, on the event dispatch thread, whether a save is due. Changes are saved once
+ * {@code interval} has passed since the last save, or right away once there are {@code dirtyThreshold} of them.
+ * Only the copy is taken on the event dispatch thread; writing it is left to {@link Main#saveInBackground()}.
+ *
+ * @author group 0120 of CSC207 summer 2019
+ * @see Main
+ * @since 2019-08-13
+ */
+public class AutosaveService implements ActionListener {
+
+    // The number of milliseconds between checks of whether a save is due
+    private static final int CHECK_INTERVAL = 1000;
+
+    // The number of milliseconds after a failed save is reported before another failure is reported
+    private static final long FAILURE_REPORT_INTERVAL = 5 * 60 * 1000;
+
+    /**
+     * The {@code Main} whose changes are saved
+     */
+    private Main main;
+
+    /**
+     * The number of milliseconds after which changes are saved
+     */
+    private long interval;
+
+    /**
+     * The number of changes that are saved right away
+     */
+    private int dirtyThreshold;
+
+    /**
+     * The timer that checks whether a save is due
+     *
+     * @see #actionPerformed(ActionEvent)
+     */
+    private Timer timer;
+
+    /**
+     * The time in milliseconds when the last save was started
+     */
+    private long lastSave;
+
+    /**
+     * The save being written, or the last one written
+     */
+    private Future<?> saving;
+
+    /**
+     * The time in milliseconds when a failed save was last reported, or 0 if the last save succeeded
+     *
+     * @see #reportFailure()
+     */
+    private long lastFailureReport;
+
+    /**
+     * Create a new {@code AutosaveService}.
+     *
+     * @param main           the {@code Main} whose changes are saved
+     * @param interval       the number of seconds after which changes are saved
+     * @param dirtyThreshold the number of changes that are saved right away
+     */
+    public AutosaveService(Main main, int interval, int dirtyThreshold) {
+        this.main = main;
+        this.interval = interval * 1000L;
+        this.dirtyThreshold = Math.max(1, dirtyThreshold);
+        timer = new Timer(CHECK_INTERVAL, this);
+    }
+
+    public void start() {
+        lastSave = System.currentTimeMillis();
+        timer.start();
+    }
+
+    public void stop() {
+        timer.stop();
+    }
+
+    /**
+     * Override the method {@code actionPerformed} in interface {@code ActionListener}.
+     * Start a save if there are changes and one is due, unless the last save is still being written.
+     * A save that failed is reported here, and its changes are saved again when the next save is due.
+     *
+     * @param e the {@code ActionEvent} of the timer
+     */
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        if (saving != null) {
+            if (!saving.isDone()) return;
+            Future<?> saved = saving;
+            saving = null;
+            try {
+                saved.get();
+                lastFailureReport = 0;
+            } catch (InterruptedException | ExecutionException e1) {
+                reportFailure();
+            }
+        }
+        int changes = main.getEmploymentCenter().getPendingCount();
+        long now = System.currentTimeMillis();
+        if (changes >= dirtyThreshold || (changes > 0 && now - lastSave >= interval)) {
+            lastSave = now;
+            saving = main.saveInBackground();
+        }
+    }
+
+    /**
+     * Tell the user that changes are not reaching the disk, the same way the "Restart" button does. While saves
+     * keep failing, this is done at most once every {@code FAILURE_REPORT_INTERVAL}.
+     */
+    private void reportFailure() {
+        long now = System.currentTimeMillis();
+        if (lastFailureReport != 0 && now - lastFailureReport < FAILURE_REPORT_INTERVAL) return;
+        lastFailureReport = now;
+        JOptionPane.showMessageDialog(null, new CannotSaveSystemException().getMessage());
+    }
+}
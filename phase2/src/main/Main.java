@@ -1,14 +1,28 @@
 package main;
 
 import gui.general.LoginFrame;
+import model.exceptions.CannotReplayJournalException;
 import model.exceptions.CannotSaveSystemException;
 import model.exceptions.NotIntegerException;
 import model.job.Document;
+import model.storage.CheckpointImage;
+import model.storage.DocumentStore;
 import model.storage.EmploymentCenter;
+import model.storage.Journal;
+import model.storage.JournalRecord;
+import model.storage.JournalReplayer;
+import model.storage.ShardedCheckpoint;
+import model.storage.SnapshotCodec;
 
 import javax.swing.*;
 import java.io.*;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Class {@code Main} handles loading, saving, timing and provide {@code EmploymentCenter} to other class,
@@ -24,6 +38,24 @@ public class Main {
     // The location of where serialize file stores
     private static final String DATA_LOCATION = "\\phase2\\data.ser";
 
+    // The location of where journal of changes since the last checkpoint stores
+    private static final String JOURNAL_LOCATION = "\\phase2\\data.journal";
+
+    // The location of where the content of documents stores
+    private static final String DOCUMENT_STORE_LOCATION = "\\phase2\\data.documents";
+
+    // The location of where the shards of the checkpoint store
+    private static final String SHARD_LOCATION = "\\phase2\\data.shards";
+
+    // The number of journal records after which the journal is folded into a new checkpoint
+    private static final int JOURNAL_COMPACTION_THRESHOLD = 1000;
+
+    // The default number of seconds between autosaves, can be set with -Dautosave.interval
+    private static final int AUTOSAVE_INTERVAL = 30;
+
+    // The default number of unsaved changes that are autosaved right away, can be set with -Dautosave.threshold
+    private static final int AUTOSAVE_THRESHOLD = 20;
+
     /**
      * The Current Date, for testing purpose or if you want more authority to control time
      */
@@ -40,6 +72,25 @@ public class Main {
      */
     private EmploymentCenter employmentCenter;
 
+    /**
+     * The journal that changes made since the last checkpoint are appended to
+     *
+     * @see Journal
+     * @see #loadSystem()
+     * @see #saveSystem()
+     */
+    private Journal journal;
+
+    /**
+     * The checkpoint, kept as one shard per company and a few for applicants, with the content of documents in
+     * a {@code DocumentStore} of its own
+     *
+     * @see ShardedCheckpoint
+     * @see #loadSystem()
+     * @see #saveInBackground()
+     */
+    private ShardedCheckpoint shardedCheckpoint;
+
     /**
      * The login frame that when system runs, it shows up to use
      *
@@ -57,14 +108,41 @@ public class Main {
     private boolean successfullyLoaded = true;
 
     /**
-     * Load system and create a new LoginFrame for user
+     * The boolean of whether the checkpoint on disk is missing, could not be loaded or is still written by
+     * Java serialization, in which case the next save writes a new checkpoint instead of appending to the journal
+     *
+     * @see #loadSystem()
+     * @see #saveSystem()
+     */
+    private volatile boolean checkpointNeeded;
+
+    /**
+     * The thread that writes saves in the background, one at a time
+     *
+     * @see #saveInBackground()
+     */
+    private ExecutorService saver = Executors.newSingleThreadExecutor();
+
+    /**
+     * The service that saves changes periodically, or as soon as enough of them are made
+     *
+     * @see AutosaveService
+     */
+    private AutosaveService autosave;
+
+    /**
+     * Load system, create a new LoginFrame for user and start autosaving
      *
      * @see #loadSystem()
      * @see LoginFrame
+     * @see AutosaveService
      */
     public Main() {
         loadSystem();
         login = new LoginFrame(this);
+        autosave = new AutosaveService(this, Integer.getInteger("autosave.interval", AUTOSAVE_INTERVAL),
+                Integer.getInteger("autosave.threshold", AUTOSAVE_THRESHOLD));
+        autosave.start();
     }
 
     public static void main(String[] args) {
@@ -83,6 +161,16 @@ public class Main {
         return currentDate;
     }
 
+    /**
+     * Set current date, used when changes saved on an earlier date are made again
+     *
+     * @param date the new current date
+     * @see model.storage.JournalReplayer
+     */
+    public static void setCurrentDate(LocalDate date) {
+        currentDate = date;
+    }
+
     /**
      * Make login frame visible again
      *
@@ -116,39 +204,169 @@ public class Main {
         return System.getProperty("user.dir") + DATA_LOCATION;
     }
 
+    private String getJournalPath() {
+        return System.getProperty("user.dir") + JOURNAL_LOCATION;
+    }
+
+    private String getDocumentStorePath() {
+        return System.getProperty("user.dir") + DOCUMENT_STORE_LOCATION;
+    }
+
+    private String getShardPath() {
+        return System.getProperty("user.dir") + SHARD_LOCATION;
+    }
+
     public boolean isSuccessfullyLoaded() {
         return successfullyLoaded;
     }
 
     /**
-     * Load {@code EmploymentCenter} from serialize file and if something wrong happened set successfulLoaded be false
+     * Load {@code EmploymentCenter} from the last checkpoint, then make again the changes in the journal,
+     * and if something wrong happened set successfulLoaded be false. A checkpoint written by Java serialization
+     * before snapshots were used, or by an older version of the snapshot format, is still read, and is written
+     * again as a snapshot on the next save
      * @see  Main()
      */
     private void loadSystem() {
+        journal = new Journal(new File(getJournalPath()));
+        ArrayList<JournalRecord> records;
+        try {
+            records = journal.readAll();
+        } catch (IOException e) {
+            records = new ArrayList<>();
+            successfullyLoaded = false;
+        }
+        File checkpoint = new File(getPath());
         try {
-            InputStream bufferedInputStream = new BufferedInputStream(new FileInputStream(getPath()));
-            ObjectInput input = new ObjectInputStream(bufferedInputStream);
-            employmentCenter = (EmploymentCenter) input.readObject();
-            input.close();
+            DocumentStore documentStore = new DocumentStore(new File(getDocumentStorePath()));
+            shardedCheckpoint = new ShardedCheckpoint(checkpoint, new File(getShardPath()), documentStore);
+            if (SnapshotCodec.isSnapshot(checkpoint)) {
+                employmentCenter = shardedCheckpoint.read();
+                checkpointNeeded = shardedCheckpoint.isOutdated();
+            } else {
+                InputStream bufferedInputStream = new BufferedInputStream(new FileInputStream(checkpoint));
+                ObjectInput input = new ObjectInputStream(bufferedInputStream);
+                employmentCenter = (EmploymentCenter) input.readObject();
+                input.close();
+                checkpointNeeded = true;
+            }
         } catch (IOException | ClassNotFoundException e) {
             employmentCenter = new EmploymentCenter();
             successfullyLoaded = false;
+            checkpointNeeded = true;
+            return;
+        }
+        try {
+            new JournalReplayer(employmentCenter).replay(records);
+        } catch (CannotReplayJournalException e) {
+            successfullyLoaded = false;
+            checkpointNeeded = true;
         }
     }
 
     /**
-     * Save{@code EmploymentCenter} to serialize file and if something wrong happened throw exception
+     * Save changes made since the last save and wait until they are written. If something wrong happened throw
+     * exception
      *
      * @throws CannotSaveSystemException Something wrong happened during saving therefore cannot save
+     * @see #saveInBackground()
      */
     public void saveSystem() throws CannotSaveSystemException {
         try {
-            OutputStream bufferedOutputStream = new BufferedOutputStream(new FileOutputStream(getPath()));
-            ObjectOutput output = new ObjectOutputStream(bufferedOutputStream);
-            output.writeObject(employmentCenter);
-            output.close();
-        } catch (IOException e) {
+            saveInBackground().get();
+        } catch (InterruptedException | ExecutionException e) {
             throw new CannotSaveSystemException();
         }
     }
+
+    /**
+     * Take a consistent copy of the changes made since the last save, and write it on the saving thread without
+     * waiting. This must be called on the Swing event dispatch thread, where all changes are made, so nothing
+     * changes while the copy is taken; changes made afterwards are left for the next save.
+     * <p>
+     * The copy is the pending journal records, or, if the journal has grown too long or there is no valid
+     * checkpoint, the shards of the {@code EmploymentCenter} changed since the last checkpoint, encoded in memory.
+     * The model is mutable and has no copy-on-write view, so these encoded bytes are the copy; taking them costs
+     * what has changed, and all of it only when there is no checkpoint to build on. Hashing the shards and
+     * writing them, the manifest and the contents of new documents are left to the saving thread. Saves are
+     * written one at a time in the order they are taken. Records that could not be written are kept again for
+     * the next save.
+     *
+     * @return the save being written, which fails with the {@code IOException} that stopped it
+     * @see AutosaveService
+     */
+    public Future<?> saveInBackground() {
+        ArrayList<JournalRecord> records = employmentCenter.takePendingRecords();
+        CheckpointImage image = null;
+        if (checkpointNeeded || journal.size() + records.size() >= JOURNAL_COMPACTION_THRESHOLD) {
+            try {
+                if (shardedCheckpoint == null) throw new IOException("No checkpoint");
+                image = shardedCheckpoint.encode(employmentCenter);
+            } catch (IOException e) {
+                if (checkpointNeeded) {
+                    employmentCenter.restorePendingRecords(records);
+                    CompletableFuture<Void> failed = new CompletableFuture<>();
+                    failed.completeExceptionally(e);
+                    return failed;
+                }
+            }
+        }
+        CheckpointImage checkpoint = image;
+        return saver.submit(() -> {
+            write(records, checkpoint);
+            return null;
+        });
+    }
+
+    /**
+     * Write a copy taken by {@link #saveInBackground()}. A checkpoint image is written as the new checkpoint; if
+     * that fails and the old checkpoint is still valid, the records are appended to the journal instead, and
+     * the shards of the image are encoded again for the next checkpoint, so the journal is folded in on a later
+     * save.
+     *
+     * @param records the records of changes since the last save
+     * @param image   the encoded checkpoint, or {@code null} if only the records are written
+     * @throws IOException Something wrong happened during writing
+     */
+    private void write(ArrayList<JournalRecord> records, CheckpointImage image) throws IOException {
+        try {
+            if (image != null) {
+                try {
+                    compact(image);
+                    return;
+                } catch (IOException e) {
+                    if (checkpointNeeded) throw e;
+                    SwingUtilities.invokeLater(() -> employmentCenter.restoreChangedShards(image));
+                }
+            }
+            journal.append(records);
+        } catch (IOException e) {
+            SwingUtilities.invokeLater(() -> {
+                employmentCenter.restorePendingRecords(records);
+                if (image != null) employmentCenter.restoreChangedShards(image);
+            });
+            throw e;
+        }
+    }
+
+    /**
+     * Write a checkpoint image as the new checkpoint and clear the journal. Only the shards that have changed
+     * are written, and the old checkpoint stays valid until the new one is complete. The document store is
+     * then rewritten without the contents the new checkpoint no longer refers to, if they take up most of it;
+     * if that fails, nothing is lost and it is tried again after a later checkpoint.
+     *
+     * @param image the encoded checkpoint
+     * @throws IOException Something wrong happened during writing
+     * @see #write(ArrayList, CheckpointImage)
+     */
+    private void compact(CheckpointImage image) throws IOException {
+        shardedCheckpoint.write(image);
+        checkpointNeeded = false;
+        journal.clear();
+        try {
+            shardedCheckpoint.compactDocuments(image);
+        } catch (IOException e) {
+            // The store is left as it was and compacted after a later checkpoint
+        }
+    }
 }
@@ -0,0 +1,123 @@
+package model.enums;
+
+/**
+ * Enum {@code JournalRecordType} contains different types of {@code JournalRecord}, one
+ * for each kind of change that can be made to the data stored in {@code EmploymentCenter}.
+ *
+ * @author group 0120 of CSC207 summer 2019
+ * @see model.storage.JournalRecord
+ * @see model.storage.JournalReplayer
+ * @since 2019-08-10
+ */
+public enum JournalRecordType {
+
+    /**
+     * {@code REGISTER_USER} means a new {@code User} has been registered, and a new
+     * {@code Company} if the user is a hiring manager.
+     */
+    REGISTER_USER,
+
+    /**
+     * {@code READ_MESSAGES} means a {@code User} has logged in and read all messages.
+     */
+    READ_MESSAGES,
+
+    /**
+     * {@code POST_JOB_POSTING} means a hiring manager has posted a new {@code JobPosting}
+     * and assigned it to a recruiter.
+     */
+    POST_JOB_POSTING,
+
+    /**
+     * {@code CLOSE_JOB_POSTINGS} means all open {@code JobPosting}s whose close date has
+     * passed have started processing.
+     */
+    CLOSE_JOB_POSTINGS,
+
+    /**
+     * {@code END_JOB_POSTING} means a recruiter has ended a {@code JobPosting}.
+     */
+    END_JOB_POSTING,
+
+    /**
+     * {@code ADD_DOCUMENT} means an {@code Applicant} has uploaded a new {@code Document}.
+     */
+    ADD_DOCUMENT,
+
+    /**
+     * {@code ATTACH_DOCUMENT} means an {@code Applicant} has added one of his/her documents
+     * to an {@code Application}.
+     */
+    ATTACH_DOCUMENT,
+
+    /**
+     * {@code REMOVE_DOCUMENT} means a {@code Document} has been removed from an {@code Applicant}
+     * or an {@code Application}.
+     */
+    REMOVE_DOCUMENT,
+
+    /**
+     * {@code UPDATE_DOCUMENTS} means the documents of an {@code Applicant} have been updated, and
+     * those not used for the past 30 days have been deleted.
+     */
+    UPDATE_DOCUMENTS,
+
+    /**
+     * {@code CREATE_APPLICATION} means an {@code Applicant} has created a draft {@code Application}.
+     */
+    CREATE_APPLICATION,
+
+    /**
+     * {@code DELETE_APPLICATION} means an {@code Applicant} has deleted a draft {@code Application}.
+     */
+    DELETE_APPLICATION,
+
+    /**
+     * {@code APPLY} means an {@code Application} has been submitted.
+     */
+    APPLY,
+
+    /**
+     * {@code CANCEL_APPLICATION} means a submitted {@code Application} has been withdrawn.
+     */
+    CANCEL_APPLICATION,
+
+    /**
+     * {@code ADD_INTERVIEW_ROUND} means a recruiter has added an {@code InterviewRound} to a
+     * {@code JobPosting}.
+     */
+    ADD_INTERVIEW_ROUND,
+
+    /**
+     * {@code NEXT_ROUND} means a recruiter has started the next {@code InterviewRound} of a
+     * {@code JobPosting}.
+     */
+    NEXT_ROUND,
+
+    /**
+     * {@code MATCH_INTERVIEW} means a recruiter has matched an {@code Interview} with an interviewer.
+     */
+    MATCH_INTERVIEW,
+
+    /**
+     * {@code MATCH_ALL_INTERVIEWS} means a recruiter has matched the unmatched {@code Interview}s of a round
+     * with interviewers at once.
+     */
+    MATCH_ALL_INTERVIEWS,
+
+    /**
+     * {@code INTERVIEW_RESULT} means an interviewer has passed or failed an {@code Interview}.
+     */
+    INTERVIEW_RESULT,
+
+    /**
+     * {@code INTERVIEW_RESULTS} means an interviewer has passed or failed many {@code Interview}s at once.
+     */
+    INTERVIEW_RESULTS,
+
+    /**
+     * {@code HIRE} means a recruiter has hired the holder of an {@code Application}.
+     */
+    HIRE
+
+}
@@ -0,0 +1,64 @@
+package model.enums;
+
+/**
+ * Enum {@code SnapshotEntityType} contains the types of objects that can be written to a snapshot.
+ * It is written by ordinal, so new types must only be added at the end.
+ *
+ * @author group 0120 of CSC207 summer 2019
+ * @see model.storage.SnapshotOutput
+ * @see model.storage.SnapshotInput
+ * @since 2019-08-11
+ */
+public enum SnapshotEntityType {
+
+    /**
+     * {@code APPLICANT} means the object is an {@code Applicant}.
+     */
+    APPLICANT,
+
+    /**
+     * {@code EMPLOYEE} means the object is an {@code Employee}.
+     */
+    EMPLOYEE,
+
+    /**
+     * {@code COMPANY} means the object is a {@code Company}.
+     */
+    COMPANY,
+
+    /**
+     * {@code JOB_POSTING} means the object is a {@code JobPosting}.
+     */
+    JOB_POSTING,
+
+    /**
+     * {@code INTERVIEW_ROUND_MANAGER} means the object is an {@code InterviewRoundManager}.
+     */
+    INTERVIEW_ROUND_MANAGER,
+
+    /**
+     * {@code INTERVIEW_ROUND} means the object is an {@code InterviewRound}.
+     */
+    INTERVIEW_ROUND,
+
+    /**
+     * {@code APPLICATION} means the object is an {@code Application}.
+     */
+    APPLICATION,
+
+    /**
+     * {@code INTERVIEW} means the object is an {@code Interview}.
+     */
+    INTERVIEW,
+
+    /**
+     * {@code DOCUMENT_MANAGER} means the object is a {@code DocumentManager}.
+     */
+    DOCUMENT_MANAGER,
+
+    /**
+     * {@code DOCUMENT} means the object is a {@code Document}.
+     */
+    DOCUMENT
+
+}
@@ -0,0 +1,9 @@
+package model.exceptions;
+
+public class CannotReadDocumentException extends Exception {
+
+    @Override
+    public String getMessage() {
+        return "Cannot read the content of this document!";
+    }
+}
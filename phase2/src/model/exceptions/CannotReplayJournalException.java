@@ -0,0 +1,17 @@
+package model.exceptions;
+
+public class CannotReplayJournalException extends Exception {
+
+    private static final long serialVersionUID = 4213908612735090518L;
+
+    private long sequence;
+
+    public CannotReplayJournalException(long sequence) {
+        this.sequence = sequence;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Cannot replay journal record " + sequence + "!";
+    }
+}
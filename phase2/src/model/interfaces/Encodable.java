@@ -0,0 +1,30 @@
+package model.interfaces;
+
+import model.storage.SnapshotInput;
+import model.storage.SnapshotOutput;
+
+import java.io.IOException;
+
+/**
+ * Classes that implement interface {@code Encodable} would be able to be
+ * written to a snapshot by {@code SnapshotOutput}. Every such class also has a
+ * constructor that takes a {@code SnapshotInput} and reads back the fields in the
+ * same order as {@code encode} writes them.
+ *
+ * @author group 0120 of CSC207 summer 2019
+ * @see SnapshotOutput
+ * @see SnapshotInput
+ * @see model.storage.SnapshotCodec
+ * @since 2019-08-11
+ */
+public interface Encodable {
+
+    /**
+     * Write all fields that are not transient to {@code output}.
+     *
+     * @param output where the fields are written to
+     * @throws IOException the fields can not be written
+     */
+    void encode(SnapshotOutput output) throws IOException;
+
+}
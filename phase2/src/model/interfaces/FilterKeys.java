@@ -0,0 +1,153 @@
+package model.interfaces;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class {@code FilterKeys} is an immutable copy of the filter map of a {@code Filterable}, with every search
+ * value lower-cased once in advance. A {@code Filterable} keeps it until one of the values changes, so that
+ * showing and searching a table does not build a new map for every row. The sort key of a value is
+ * converted the first time its column is sorted or searched for a range, and kept as well.
+ * <p>
+ * Every time a {@code Filterable} drops its {@code FilterKeys}, it counts a modification, so that an index
+ * built over the old values can tell it is out of date.
+ *
+ * @author group 0120 of CSC207 summer 2019
+ * @see Filterable#getFilterKeys()
+ * @see gui.panels.Filter
+ * @since 2019-08-15
+ */
+public final class FilterKeys {
+
+    /**
+     * The number of times a {@code Filterable} has dropped its {@code FilterKeys} because one of its values
+     * changed.
+     *
+     * @see #markModified()
+     * @see #getModificationCount()
+     */
+    private static final AtomicLong modificationCount = new AtomicLong();
+
+    /**
+     * The headings, in the order of the filter map.
+     */
+    private final List<String> headings;
+
+    /**
+     * The search values, in the same order as {@code headings}.
+     */
+    private final List<String> values;
+
+    /**
+     * The lower-cased search values, in the same order as {@code headings}.
+     */
+    private final List<String> searchKeys;
+
+    /**
+     * The sort keys of the search values, in the same order as {@code headings}. Each is converted the
+     * first time it is needed, and is {@code null} until then.
+     *
+     * @see #getSortKey(String)
+     */
+    private final SortKey[] sortKeys;
+
+    /**
+     * Create a new {@code FilterKeys} from a filter map.
+     *
+     * @param filterMap a map where each entry is a heading, search value pair
+     * @see Filterable#getFilterMap()
+     */
+    public FilterKeys(Map<String, String> filterMap) {
+        String[] headings = new String[filterMap.size()];
+        String[] values = new String[filterMap.size()];
+        String[] searchKeys = new String[filterMap.size()];
+        int i = 0;
+        for (Map.Entry<String, String> entry : filterMap.entrySet()) {
+            headings[i] = entry.getKey();
+            values[i] = entry.getValue();
+            searchKeys[i] = entry.getValue() == null ? null : entry.getValue().toLowerCase();
+            i++;
+        }
+        this.headings = Collections.unmodifiableList(Arrays.asList(headings));
+        this.values = Collections.unmodifiableList(Arrays.asList(values));
+        this.searchKeys = Collections.unmodifiableList(Arrays.asList(searchKeys));
+        this.sortKeys = new SortKey[filterMap.size()];
+    }
+
+    /**
+     * Count a modification. A {@code Filterable} calls this whenever it drops its {@code FilterKeys}.
+     */
+    public static void markModified() {
+        modificationCount.incrementAndGet();
+    }
+
+    /**
+     * Return the number of times a {@code Filterable} has dropped its {@code FilterKeys}.
+     *
+     * @return the number of modifications so far
+     */
+    public static long getModificationCount() {
+        return modificationCount.get();
+    }
+
+    public List<String> getHeadings() {
+        return headings;
+    }
+
+    public List<String> getSearchKeys() {
+        return searchKeys;
+    }
+
+    /**
+     * Return the search value under a heading.
+     *
+     * @param heading the heading
+     * @return the search value, or {@code null} if there is no such heading
+     */
+    public String get(String heading) {
+        int index = headings.indexOf(heading);
+        return index == -1 ? null : values.get(index);
+    }
+
+    /**
+     * Return the lower-cased search value under a heading.
+     *
+     * @param heading the heading
+     * @return the lower-cased search value, or {@code null} if there is no such heading
+     */
+    public String getSearchKey(String heading) {
+        int index = headings.indexOf(heading);
+        return index == -1 ? null : searchKeys.get(index);
+    }
+
+    /**
+     * Return the sort key of the search value under a heading.
+     *
+     * @param heading the heading
+     * @return the sort key, or {@code null} if there is no such heading or no value under it
+     * @see SortKey#of(String)
+     */
+    public synchronized SortKey getSortKey(String heading) {
+        int index = headings.indexOf(heading);
+        if (index == -1) return null;
+        if (sortKeys[index] == null) sortKeys[index] = SortKey.of(values.get(index));
+        return sortKeys[index];
+    }
+
+    /**
+     * Return the search values under the given headings.
+     *
+     * @param headings the headings
+     * @return the search values, {@code null} where there is no such heading
+     */
+    public String[] get(String[] headings) {
+        String[] result = new String[headings.length];
+        for (int i = 0; i < headings.length; i++) {
+            result[i] = get(headings[i]);
+        }
+        return result;
+    }
+}
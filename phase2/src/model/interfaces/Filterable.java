@@ -21,4 +21,12 @@ public interface Filterable {
      */
     HashMap<String, String> getFilterMap();
 
+    /**
+     * Return the search values of {@code getFilterMap}, built once and kept until one of them changes.
+     *
+     * @return the search values with their lower-cased search keys
+     * @see FilterKeys
+     */
+    FilterKeys getFilterKeys();
+
 }
@@ -0,0 +1,103 @@
+package model.interfaces;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Class {@code SortKey} is a search value converted once into the form it is ordered by: a whole number
+ * by its value, a date in the format yyyy-mm-dd by time, and any other text by a collation key that
+ * ignores case. Numbers come before dates, and dates before text.
+ *
+ * @author group 0120 of CSC207 summer 2019
+ * @see FilterKeys#getSortKey(String)
+ * @see gui.panels.Filter
+ * @since 2019-08-16
+ */
+public final class SortKey implements Comparable<SortKey> {
+
+    // The kinds of sort keys, in the order they are sorted in
+    private static final int NUMBER = 0;
+    private static final int DATE = 1;
+    private static final int TEXT = 2;
+
+    // The longest number of digits a number can have without overflowing a long
+    private static final int MAX_DIGITS = 18;
+
+    /**
+     * The collator text is compared with. It is not thread-safe, so it is used under its own lock.
+     */
+    private static final Collator COLLATOR = Collator.getInstance();
+
+    static {
+        COLLATOR.setStrength(Collator.SECONDARY);
+    }
+
+    /**
+     * The kind of this key, one of {@code NUMBER}, {@code DATE} and {@code TEXT}.
+     */
+    private final int kind;
+
+    private final long number;
+
+    private final LocalDate date;
+
+    private final CollationKey text;
+
+    private SortKey(int kind, long number, LocalDate date, CollationKey text) {
+        this.kind = kind;
+        this.number = number;
+        this.date = date;
+        this.text = text;
+    }
+
+    /**
+     * Convert a search value into its sort key.
+     *
+     * @param value the search value
+     * @return the sort key of {@code value}, or {@code null} if {@code value} is {@code null}
+     */
+    public static SortKey of(String value) {
+        if (value == null) return null;
+        if (isNumber(value)) return new SortKey(NUMBER, Long.parseLong(value), null, null);
+        if (value.length() == 10 && value.charAt(4) == '-' && value.charAt(7) == '-') {
+            try {
+                return new SortKey(DATE, 0, LocalDate.parse(value), null);
+            } catch (DateTimeParseException e) {
+                // Not a date after all, so it is sorted as text
+            }
+        }
+        synchronized (COLLATOR) {
+            return new SortKey(TEXT, 0, null, COLLATOR.getCollationKey(value));
+        }
+    }
+
+    /**
+     * Return true if and only if a value is a whole number that fits in a long.
+     *
+     * @param value the value
+     * @return true if and only if {@code value} is a whole number
+     */
+    private static boolean isNumber(String value) {
+        int start = value.startsWith("-") ? 1 : 0;
+        if (value.length() == start || value.length() - start > MAX_DIGITS) return false;
+        for (int i = start; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int compareTo(SortKey other) {
+        if (kind != other.kind) return Integer.compare(kind, other.kind);
+        switch (kind) {
+            case NUMBER:
+                return Long.compare(number, other.number);
+            case DATE:
+                return date.compareTo(other.date);
+            default:
+                return text.compareTo(other.text);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package model.interfaces;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Classes that implement interface {@code TextSearchable} can be searched by the words in the content
+ * of their documents, besides the values of their filter map.
+ *
+ * @author group 0120 of CSC207 summer 2019
+ * @see model.job.DocumentManager
+ * @see gui.panels.Filter
+ * @since 2019-08-16
+ */
+public interface TextSearchable {
+
+    /**
+     * Return true if and only if the content of at least one document contains {@code word}.
+     *
+     * @param word a lower-cased word, as split by {@link #splitWords(String)}
+     * @return true if and only if a document contains {@code word}
+     */
+    boolean containsWord(String word);
+
+    /**
+     * Return the distinct lower-cased words of the contents of the documents. The set must not be changed.
+     *
+     * @return the words of the documents
+     * @see #splitWords(String)
+     */
+    Set<String> getWords();
+
+    /**
+     * Return the value of {@code DocumentManager.getWordsModificationCount()} right after the words last
+     * changed, or 0 if they have not changed since loading.
+     *
+     * @return the version of the words
+     * @see model.job.DocumentManager#getWordsVersion()
+     */
+    long getWordsVersion();
+
+    /**
+     * Split a text into lower-cased words. A word is a run of letters, digits, "+" and "#", so that
+     * "C++" and "C#" are words of their own.
+     *
+     * @param text the text to be split
+     * @return the distinct words of {@code text}, in the order they first appear
+     */
+    static LinkedHashSet<String> splitWords(String text) {
+        LinkedHashSet<String> words = new LinkedHashSet<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean inWord = i < text.length() && isWordChar(text.charAt(i));
+            if (inWord && start == -1) {
+                start = i;
+            } else if (!inWord && start != -1) {
+                words.add(text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Return true if and only if a character can be part of a word.
+     *
+     * @param c the character
+     * @return true if and only if {@code c} can be part of a word
+     */
+    static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '+' || c == '#';
+    }
+}
@@ -5,14 +5,21 @@ import model.enums.InterviewStatus;
 import model.exceptions.ApplicationAlreadyExistsException;
 import model.exceptions.WrongApplicationStatusException;
 import model.exceptions.WrongJobPostingStatusException;
+import model.interfaces.Encodable;
+import model.interfaces.FilterKeys;
 import model.interfaces.Filterable;
 import model.interfaces.ShowAble;
+import model.interfaces.TextSearchable;
 import model.storage.EmploymentCenter;
+import model.storage.SnapshotInput;
+import model.storage.SnapshotOutput;
 import model.user.Applicant;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Set;
 
 /**
  * Class {@code Application} stores the information about a particular
@@ -24,7 +31,7 @@ import java.util.HashMap;
  * @see ApplicationStatus
  * @since 2019-08-04
  */
-public class Application implements Filterable, Serializable, ShowAble {
+public class Application implements Filterable, Serializable, ShowAble, Encodable, TextSearchable {
 
     private static final long serialVersionUID = 8995030037783037903L;
 
@@ -71,6 +78,22 @@ public class Application implements Filterable, Serializable, ShowAble {
      */
     private ApplicationStatus status;
 
+    /**
+     * The search values of this application, built when first needed and dropped
+     * whenever {@code status} changes.
+     *
+     * @see #getFilterKeys()
+     */
+    private transient FilterKeys filterKeys;
+
+    /**
+     * The interview round manager of the job posting while this application is one of its remaining
+     * applications, told of every change of {@code status}.
+     *
+     * @see InterviewRoundManager#updateStatus(Application)
+     */
+    private transient InterviewRoundManager interviewRoundManager;
+
 
     /**
      * Create a new application.
@@ -85,6 +108,45 @@ public class Application implements Filterable, Serializable, ShowAble {
         this.status = ApplicationStatus.DRAFT;
     }
 
+    /**
+     * Constructor for {@code Application} read from a snapshot.
+     *
+     * @param input the snapshot this {@code Application} is read from
+     * @throws IOException the {@code Application} can not be read
+     * @see #encode(SnapshotOutput)
+     */
+    public Application(SnapshotInput input) throws IOException {
+        input.register(this);
+        this.applicantId = input.readString();
+        this.jobPostingId = input.readString();
+        this.status = input.readEnum(ApplicationStatus.class);
+        this.documentManager = input.readObject();
+        int size = input.readInt();
+        for (int i = 0; i < size; i++) {
+            this.interviews.put(input.readString(), input.readObject());
+        }
+    }
+
+    /**
+     * Write this {@code Application} to a snapshot.
+     *
+     * @param output the snapshot this {@code Application} is written to
+     * @throws IOException the {@code Application} can not be written
+     * @see #Application(SnapshotInput)
+     */
+    @Override
+    public void encode(SnapshotOutput output) throws IOException {
+        output.writeString(applicantId);
+        output.writeString(jobPostingId);
+        output.writeEnum(status);
+        output.writeObject(documentManager);
+        output.writeInt(interviews.size());
+        for (String round : interviews.keySet()) {
+            output.writeString(round);
+            output.writeObject(interviews.get(round));
+        }
+    }
+
     /**
      * Return all the interviews this application holds.
      *
@@ -104,6 +166,21 @@ public class Application implements Filterable, Serializable, ShowAble {
         return this.interviews.get(round);
     }
 
+    /**
+     * Return the name of the round the given interview belongs to.
+     *
+     * @param interview an interview of this application
+     * @return the name of the round {@code interview} belongs to, or {@code null} if it is not found
+     */
+    public String getRoundName(Interview interview) {
+        for (String round : this.interviews.keySet()) {
+            if (this.interviews.get(round) == interview) {
+                return round;
+            }
+        }
+        return null;
+    }
+
     public String getApplicantId() {
         return this.applicantId;
     }
@@ -134,6 +211,13 @@ public class Application implements Filterable, Serializable, ShowAble {
 
     public void setStatus(ApplicationStatus status) {
         this.status = status;
+        filterKeys = null;
+        FilterKeys.markModified();
+        if (interviewRoundManager != null) interviewRoundManager.updateStatus(this);
+    }
+
+    void setInterviewRoundManager(InterviewRoundManager interviewRoundManager) {
+        this.interviewRoundManager = interviewRoundManager;
     }
 
     /**
@@ -245,4 +329,25 @@ public class Application implements Filterable, Serializable, ShowAble {
         return map;
     }
 
+    @Override
+    public FilterKeys getFilterKeys() {
+        if (filterKeys == null) filterKeys = new FilterKeys(getFilterMap());
+        return filterKeys;
+    }
+
+    @Override
+    public boolean containsWord(String word) {
+        return documentManager.containsWord(word);
+    }
+
+    @Override
+    public Set<String> getWords() {
+        return documentManager.getWords();
+    }
+
+    @Override
+    public long getWordsVersion() {
+        return documentManager.getWordsVersion();
+    }
+
 }
@@ -1,12 +1,23 @@
 package model.job;
 
 import main.Main;
+import model.exceptions.CannotReadDocumentException;
+import model.interfaces.Encodable;
+import model.interfaces.FilterKeys;
 import model.interfaces.Filterable;
 import model.interfaces.ShowAble;
+import model.interfaces.TextSearchable;
+import model.storage.DocumentStore;
+import model.storage.SnapshotInput;
+import model.storage.SnapshotOutput;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Set;
+import java.util.UUID;
 
 /**
  * Class {@code Document} is used by {@code Applicant} when applying for a
@@ -18,7 +29,7 @@ import java.util.HashMap;
  * @see Application
  * @since 2019-08-04
  */
-public class Document implements Filterable, Serializable, ShowAble {
+public class Document implements Filterable, Serializable, ShowAble, Encodable, TextSearchable {
 
     private static final long serialVersionUID = -5088023589351328127L;
 
@@ -30,13 +41,46 @@ public class Document implements Filterable, Serializable, ShowAble {
     private String documentName = "";
 
     /**
-     * The content of the document.
+     * The id of the document, given once when it is created and never changed. Changes written to the
+     * journal refer to the document by it, so that they do not depend on its position in any list.
+     *
+     * @see #getDocumentId()
+     * @see model.storage.JournalReplayer
+     */
+    private String documentId;
+
+    /**
+     * The content of the document, if it has not been moved to a {@code DocumentStore} yet.
      *
      * @see #getContent()
      * @see #readContent(File)
      */
     private String content;
 
+    /**
+     * The content of the document as read from a snapshot written before contents were kept in a
+     * {@code DocumentStore}, still encoded in UTF-8. It is decoded only when the content is first needed.
+     *
+     * @see #getContent()
+     * @see #Document(SnapshotInput)
+     */
+    private transient byte[] contentBytes;
+
+    /**
+     * The id of the content in {@code documentStore}, or 0 if the content is not there yet.
+     *
+     * @see DocumentStore#put(byte[])
+     * @see #encode(SnapshotOutput)
+     */
+    private transient long contentId;
+
+    /**
+     * The store that keeps the content of this document once it has been saved.
+     *
+     * @see #getContent()
+     */
+    private transient DocumentStore documentStore;
+
     /**
      * Last date that this document is used for any application.
      * Any document that has not been used for the past 30 days will
@@ -53,6 +97,22 @@ public class Document implements Filterable, Serializable, ShowAble {
      */
     private boolean isUsed;
 
+    /**
+     * The search values of this document, built when first needed and dropped when
+     * {@code lastUsedDate} changes.
+     *
+     * @see #getFilterKeys()
+     */
+    private transient FilterKeys filterKeys;
+
+    /**
+     * The words of the content, split when first needed. The content never changes, so neither do they.
+     * Documents can be searched from several threads, so they are split under the lock of this document.
+     *
+     * @see #getWords()
+     */
+    private transient Set<String> words;
+
     /**
      * Create a new {@code Document} from the file path.
      *
@@ -61,6 +121,7 @@ public class Document implements Filterable, Serializable, ShowAble {
      */
     public Document(String path) {
         File file = new File(path);
+        this.documentId = UUID.randomUUID().toString();
         this.lastUsedDate = LocalDate.now();
         if (file.exists()) {
             documentName = file.getName();
@@ -70,6 +131,81 @@ public class Document implements Filterable, Serializable, ShowAble {
         }
     }
 
+    /**
+     * Create a new {@code Document} from its id, name and content that were read before.
+     *
+     * @param documentId   the id of this document
+     * @param documentName the title of this document
+     * @param content      the content of this document
+     * @see model.storage.JournalReplayer
+     */
+    public Document(String documentId, String documentName, String content) {
+        this.documentId = documentId;
+        this.documentName = documentName;
+        this.content = content;
+        setUsed();
+        update();
+    }
+
+    /**
+     * Constructor for {@code Document} read from a snapshot. A document read from a snapshot written before
+     * version 4 is given a new id, and the checkpoint is written again on the next save.
+     *
+     * @param input the snapshot this {@code Document} is read from
+     * @throws IOException the {@code Document} can not be read
+     * @see #encode(SnapshotOutput)
+     */
+    public Document(SnapshotInput input) throws IOException {
+        input.register(this);
+        this.documentName = input.readString();
+        if (input.getVersion() < 2) {
+            this.contentBytes = input.readTextBytes();
+        } else {
+            this.contentId = input.readLong();
+            this.documentStore = input.getDocumentStore();
+        }
+        this.lastUsedDate = input.readDate();
+        this.isUsed = input.readBoolean();
+        this.documentId = input.getVersion() < 4 ? UUID.randomUUID().toString() : input.readString();
+    }
+
+    /**
+     * Restore the fields written by default serialization, and give a document written before it had an id
+     * a new one.
+     *
+     * @param input the stream this {@code Document} is read from
+     * @throws IOException            the stream can not be read
+     * @throws ClassNotFoundException a class in the stream can not be found
+     */
+    private void readObject(ObjectInputStream input) throws IOException, ClassNotFoundException {
+        input.defaultReadObject();
+        if (documentId == null) documentId = UUID.randomUUID().toString();
+    }
+
+    /**
+     * Write this {@code Document} to a snapshot. The content is moved to the {@code DocumentStore}
+     * of the snapshot first if it is not there yet, and only its id is written.
+     *
+     * @param output the snapshot this {@code Document} is written to
+     * @throws IOException the {@code Document} can not be written
+     * @see #Document(SnapshotInput)
+     */
+    @Override
+    public void encode(SnapshotOutput output) throws IOException {
+        output.writeString(documentName);
+        if (contentId == 0 && (content != null || contentBytes != null)) {
+            byte[] bytes = contentBytes != null ? contentBytes : content.getBytes(StandardCharsets.UTF_8);
+            contentId = output.getDocumentStore().put(bytes);
+            documentStore = output.getDocumentStore();
+            content = null;
+            contentBytes = null;
+        }
+        output.writeContentId(contentId);
+        output.writeDate(lastUsedDate);
+        output.writeBoolean(isUsed);
+        output.writeString(documentId);
+    }
+
     /**
      * Read the content of a given file.
      *
@@ -95,10 +231,79 @@ public class Document implements Filterable, Serializable, ShowAble {
         return documentName;
     }
 
-    public String getContent() {
+    public String getDocumentId() {
+        return documentId;
+    }
+
+    /**
+     * Return the id of the content of this document in the {@code DocumentStore}. It is given only once to
+     * each document, so it also tells apart documents read from different shards of a checkpoint.
+     *
+     * @return the id of the content, or 0 if the content is not in the store yet
+     * @see model.storage.SnapshotInput#readObject()
+     */
+    public long getContentId() {
+        return contentId;
+    }
+
+    /**
+     * Return the content of this document. Once saved, the content is read from the
+     * {@code DocumentStore} only now, when it is actually shown.
+     *
+     * @return the content of this document
+     * @throws CannotReadDocumentException the content can not be read from the {@code DocumentStore}
+     * @see gui.panels.OutputInfoPanel#showDocument(Document)
+     */
+    public String getContent() throws CannotReadDocumentException {
+        if (contentId != 0) {
+            try {
+                return documentStore.get(contentId);
+            } catch (IOException e) {
+                throw new CannotReadDocumentException();
+            }
+        }
+        if (contentBytes != null) {
+            content = new String(contentBytes, StandardCharsets.UTF_8);
+            contentBytes = null;
+        }
         return this.content;
     }
 
+    /**
+     * Return the distinct lower-cased words of the content of this document. If the content can not be read,
+     * it has no words for now, and is read again the next time it is searched.
+     *
+     * @return the words of the content
+     * @see TextSearchable#splitWords(String)
+     * @see DocumentManager#containsWord(String)
+     */
+    @Override
+    public synchronized Set<String> getWords() {
+        if (words == null) {
+            try {
+                words = TextSearchable.splitWords(getContent());
+            } catch (CannotReadDocumentException e) {
+                return Collections.emptySet();
+            }
+        }
+        return words;
+    }
+
+    @Override
+    public boolean containsWord(String word) {
+        return getWords().contains(word);
+    }
+
+    /**
+     * Return 0, since the content of a document never changes once it is created.
+     *
+     * @return 0
+     */
+    @Override
+    public long getWordsVersion() {
+        return 0;
+    }
+
     private LocalDate getLastUsedDate() {
         return this.lastUsedDate;
     }
@@ -131,6 +336,8 @@ public class Document implements Filterable, Serializable, ShowAble {
         if (isUsed) {
             clearUsage();
             lastUsedDate = Main.getCurrentDate();
+            filterKeys = null;
+            FilterKeys.markModified();
         }
     }
 
@@ -154,6 +361,12 @@ public class Document implements Filterable, Serializable, ShowAble {
      */
     @Override
     public String toString() {
+        String content;
+        try {
+            content = getContent();
+        } catch (CannotReadDocumentException e) {
+            content = e.getMessage();
+        }
         return getInfoString("Name", documentName) +
                 getInfoString("Last used date", lastUsedDate.toString()) +
                 getInfoString("Content", content);
@@ -172,4 +385,10 @@ public class Document implements Filterable, Serializable, ShowAble {
         return map;
     }
 
+    @Override
+    public FilterKeys getFilterKeys() {
+        if (filterKeys == null) filterKeys = new FilterKeys(getFilterMap());
+        return filterKeys;
+    }
+
 }
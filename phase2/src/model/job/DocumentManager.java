@@ -3,9 +3,18 @@ package model.job;
 import model.exceptions.CanNotEditDocumentManagerException;
 import model.exceptions.DocumentAlreadyExistsException;
 import model.exceptions.EmptyDocumentNameException;
+import model.interfaces.Encodable;
+import model.interfaces.TextSearchable;
+import model.storage.SnapshotInput;
+import model.storage.SnapshotOutput;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Class {@code DocumentManager} deals with all the documents for either
@@ -16,10 +25,13 @@ import java.util.ArrayList;
  * @see Application
  * @since 2019-08-04
  */
-public class DocumentManager implements Serializable {
+public class DocumentManager implements Serializable, Encodable {
 
     private static final long serialVersionUID = -1699054066935007390L;
 
+    // The number of times documents have been added to or removed from any DocumentManager
+    private static final AtomicLong wordsModificationCount = new AtomicLong();
+
     /**
      * An array list of documents.
      *
@@ -39,6 +51,28 @@ public class DocumentManager implements Serializable {
      */
     private boolean editable;
 
+    /**
+     * An inverted index from each word in the content of the documents to the documents that contain it.
+     * It is built when first searched and kept up to date as documents are added and removed.
+     * <p>
+     * There is one such index per manager, that is, per applicant or application, since that is where
+     * documents are added and removed. A search across many applications goes through
+     * {@code gui.panels.FilterIndex}, which collects the words of every manager into one posting list per
+     * word the first time documents are searched, and updates the lists of the managers that changed since.
+     *
+     * @see #containsWord(String)
+     * @see #getWords()
+     */
+    private transient HashMap<String, ArrayList<Document>> wordIndex;
+
+    /**
+     * The value of {@code wordsModificationCount} when a document was last added to or removed from this
+     * manager, or 0 if none has been since loading.
+     *
+     * @see #getWordsVersion()
+     * @see #markWordsChanged()
+     */
+    private transient long wordsVersion;
 
     /**
      * Create a new document manager.
@@ -49,6 +83,32 @@ public class DocumentManager implements Serializable {
         this.editable = editable;
     }
 
+    /**
+     * Constructor for {@code DocumentManager} read from a snapshot.
+     *
+     * @param input the snapshot this {@code DocumentManager} is read from
+     * @throws IOException the {@code DocumentManager} can not be read
+     * @see #encode(SnapshotOutput)
+     */
+    public DocumentManager(SnapshotInput input) throws IOException {
+        input.register(this);
+        this.editable = input.readBoolean();
+        this.documents = input.readList();
+    }
+
+    /**
+     * Write this {@code DocumentManager} to a snapshot.
+     *
+     * @param output the snapshot this {@code DocumentManager} is written to
+     * @throws IOException the {@code DocumentManager} can not be written
+     * @see #DocumentManager(SnapshotInput)
+     */
+    @Override
+    public void encode(SnapshotOutput output) throws IOException {
+        output.writeBoolean(editable);
+        output.writeList(documents);
+    }
+
     private boolean isEditable() {
         return this.editable;
     }
@@ -77,6 +137,8 @@ public class DocumentManager implements Serializable {
             throw new DocumentAlreadyExistsException();
         } else {
             documents.add(document);
+            if (wordIndex != null) index(document);
+            markWordsChanged();
         }
     }
 
@@ -86,7 +148,115 @@ public class DocumentManager implements Serializable {
      * @param document the name of the document wished to remove
      */
     public void removeDocument(Document document) {
-        documents.remove(document);
+        if (!documents.remove(document)) return;
+        if (wordIndex != null) unindex(document);
+        markWordsChanged();
+    }
+
+    /**
+     * Return true if and only if the content of at least one document contains {@code word}.
+     *
+     * @param word a lower-cased word
+     * @return true if and only if a document contains {@code word}
+     * @see TextSearchable#splitWords(String)
+     */
+    public boolean containsWord(String word) {
+        return getWordIndex().containsKey(word);
+    }
+
+    /**
+     * Return the distinct words of the contents of the documents.
+     *
+     * @return the words of the documents, which can not be changed
+     * @see TextSearchable#getWords()
+     */
+    public Set<String> getWords() {
+        return Collections.unmodifiableSet(getWordIndex().keySet());
+    }
+
+    /**
+     * Count a change of the documents of this manager, so that indexes over the words of the documents of
+     * many managers can tell which managers to update.
+     *
+     * @see #getWordsVersion()
+     */
+    private void markWordsChanged() {
+        wordsVersion = wordsModificationCount.incrementAndGet();
+    }
+
+    /**
+     * Return the number of times documents have been added to or removed from any {@code DocumentManager}.
+     *
+     * @return the number of changes so far
+     */
+    public static long getWordsModificationCount() {
+        return wordsModificationCount.get();
+    }
+
+    /**
+     * Return the value of {@link #getWordsModificationCount()} right after the documents of this manager
+     * last changed. An index last brought up to date at a lower count has not seen the change.
+     *
+     * @return the version of the words of this manager, or 0 if they have not changed since loading
+     * @see TextSearchable#getWordsVersion()
+     */
+    public long getWordsVersion() {
+        return wordsVersion;
+    }
+
+    /**
+     * Return {@code wordIndex}, building it first if it has not been built. Items are searched from several
+     * threads, so it is built under the lock of this manager.
+     *
+     * @return the inverted index of the documents
+     */
+    private synchronized HashMap<String, ArrayList<Document>> getWordIndex() {
+        if (wordIndex == null) {
+            wordIndex = new HashMap<>();
+            for (Document document : documents) {
+                index(document);
+            }
+        }
+        return wordIndex;
+    }
+
+    /**
+     * Add the words of a document to {@code wordIndex}.
+     *
+     * @param document the document added
+     */
+    private void index(Document document) {
+        for (String word : document.getWords()) {
+            wordIndex.computeIfAbsent(word, w -> new ArrayList<>(1)).add(document);
+        }
+    }
+
+    /**
+     * Remove the words of a document from {@code wordIndex}.
+     *
+     * @param document the document removed
+     */
+    private void unindex(Document document) {
+        for (String word : document.getWords()) {
+            ArrayList<Document> found = wordIndex.get(word);
+            if (found == null) continue;
+            found.remove(document);
+            if (found.isEmpty()) wordIndex.remove(word);
+        }
+    }
+
+    /**
+     * Return the document with the given id.
+     *
+     * @param documentId the id of the document
+     * @return the document with {@code documentId}, or {@code null} if this manager does not hold it
+     * @see Document#getDocumentId()
+     */
+    public Document getDocument(String documentId) {
+        for (Document document : documents) {
+            if (document.getDocumentId().equals(documentId)) return document;
+        }
+        return null;
     }
 
     public ArrayList<Document> getAllDocuments() {
@@ -96,15 +266,23 @@ public class DocumentManager implements Serializable {
     /**
      * Update all the documents it currently hold.
      *
+     * @return true if and only if any document has been deleted
      * @see Document#update()
      * @see Document#shouldDelete()
      */
-    public void updateAllDocuments() {
+    public boolean updateAllDocuments() {
         ArrayList<Document> temp = new ArrayList<>();
         for (Document document : getAllDocuments()) {
             document.update();
-            if (!document.shouldDelete()) temp.add(document);
+            if (!document.shouldDelete()) {
+                temp.add(document);
+            } else if (wordIndex != null) {
+                unindex(document);
+            }
         }
+        boolean deleted = temp.size() != documents.size();
         documents = temp;
+        if (deleted) markWordsChanged();
+        return deleted;
     }
 }
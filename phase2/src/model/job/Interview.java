@@ -2,13 +2,24 @@ package model.job;
 
 import model.enums.InterviewStatus;
 import model.exceptions.WrongInterviewStatusException;
+import model.interfaces.Encodable;
+import model.interfaces.FilterKeys;
 import model.interfaces.Filterable;
 import model.interfaces.ShowAble;
+import model.interfaces.TextSearchable;
 import model.storage.EmploymentCenter;
+import model.storage.SnapshotInput;
+import model.storage.SnapshotOutput;
 import model.user.Employee;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Class {@code Interview} stores information about an interview an
@@ -19,7 +30,7 @@ import java.util.HashMap;
  * @see Employee
  * @since 2019-08-04
  */
-public class Interview implements Filterable, Serializable, ShowAble {
+public class Interview implements Filterable, Serializable, ShowAble, Encodable, TextSearchable {
 
     private static final long serialVersionUID = -1449779786766385357L;
 
@@ -29,7 +40,7 @@ public class Interview implements Filterable, Serializable, ShowAble {
      * @see Employee
      * @see model.enums.UserType
      * @see #getInterviewer()
-     * @see #match(Employee, String)
+     * @see #match(Employee, String, EmploymentCenter)
      */
     private Employee interviewer;
 
@@ -60,6 +71,22 @@ public class Interview implements Filterable, Serializable, ShowAble {
      */
     private InterviewStatus status = InterviewStatus.UNMATCHED;
 
+    /**
+     * The search values of this interview, built when first needed and dropped whenever
+     * {@code status} changes, which is also when an interviewer is matched.
+     *
+     * @see #getFilterKeys()
+     */
+    private transient FilterKeys filterKeys;
+
+    /**
+     * The interview round this interview is in, told of every change of {@code status}. It is set by the
+     * round once the round keeps its applications by interview status.
+     *
+     * @see InterviewRound#updateStatus(Application, InterviewStatus, InterviewStatus)
+     */
+    private transient InterviewRound interviewRound;
+
     /**
      * Constructor for {@code Interview}.
      *
@@ -70,6 +97,36 @@ public class Interview implements Filterable, Serializable, ShowAble {
         this.application = application;
     }
 
+    /**
+     * Constructor for {@code Interview} read from a snapshot.
+     *
+     * @param input the snapshot this {@code Interview} is read from
+     * @throws IOException the {@code Interview} can not be read
+     * @see #encode(SnapshotOutput)
+     */
+    public Interview(SnapshotInput input) throws IOException {
+        input.register(this);
+        this.status = input.readEnum(InterviewStatus.class);
+        this.recommendation = input.readText();
+        this.application = input.readObject();
+        this.interviewer = input.readObject();
+    }
+
+    /**
+     * Write this {@code Interview} to a snapshot.
+     *
+     * @param output the snapshot this {@code Interview} is written to
+     * @throws IOException the {@code Interview} can not be written
+     * @see #Interview(SnapshotInput)
+     */
+    @Override
+    public void encode(SnapshotOutput output) throws IOException {
+        output.writeEnum(status);
+        output.writeText(recommendation);
+        output.writeObject(application);
+        output.writeObject(interviewer);
+    }
+
     public Employee getInterviewer() {
         return interviewer;
     }
@@ -79,26 +136,46 @@ public class Interview implements Filterable, Serializable, ShowAble {
     }
 
     /**
-     * Arrange the interview with the given interviewer.
+     * Arrange the interview with the given interviewer, then notify both the interviewer and the applicant.
      *
-     * @param interviewer the interviewer that will do this interview
-     * @param round the interview round this interview is in
+     * @param interviewer      the interviewer that will do this interview
+     * @param round            the interview round this interview is in
+     * @param employmentCenter the {@code EmploymentCenter} that contains all users
      * @throws WrongInterviewStatusException the status of interview is not UNMATCHED, can not match
      * @see InterviewStatus
      * @see Employee#addFile(Object)
      */
-    public void match(Employee interviewer, String round) throws WrongInterviewStatusException {
+    public void match(Employee interviewer, String round, EmploymentCenter employmentCenter)
+            throws WrongInterviewStatusException {
+        assign(interviewer, round);
+        interviewer.receiveMessage("You got an new interview!");
+        application.getApplicant(employmentCenter).receiveMessage("You received a new interview!");
+    }
+
+    /**
+     * Arrange the interview with the given interviewer without notifying anyone, so that the caller
+     * can notify the interviewer once for many interviews.
+     *
+     * @param interviewer the interviewer that will do this interview
+     * @param round       the interview round this interview is in
+     * @throws WrongInterviewStatusException the status of interview is not UNMATCHED, can not match
+     * @see InterviewMatcher#match(String, java.util.LinkedHashMap, EmploymentCenter)
+     */
+    void assign(Employee interviewer, String round) throws WrongInterviewStatusException {
         if (status.equals(InterviewStatus.UNMATCHED)) {
             interviewer.addFile(this);
             this.interviewer = interviewer;
             setStatus(InterviewStatus.PENDING);
             application.addInterview(round, this);
-            interviewer.receiveMessage("You got an new interview!");
         } else {
             throw new WrongInterviewStatusException();
         }
     }
 
+    void setInterviewRound(InterviewRound interviewRound) {
+        this.interviewRound = interviewRound;
+    }
+
     public void setRecommendation(String recommendation) {
         this.recommendation = recommendation;
     }
@@ -108,15 +185,46 @@ public class Interview implements Filterable, Serializable, ShowAble {
     }
 
     /**
-     * Update the {@code status} of this interview and notify all the holders.
+     * Update the {@code status} of this interview, then tell the round it is in and notify all the holders.
      *
      * @param status the new {@code status} of this interview
-     * @see #notifyHolders()
+     * @see #notifyHolders(InterviewStatus)
      * @see InterviewStatus
      */
     public void setStatus(InterviewStatus status) {
-        this.status = status;
-        notifyHolders();
+        notifyHolders(status);
+        if (isFinished() && interviewer != null) interviewer.removeFile(this);
+    }
+
+    /**
+     * Set the same result and recommendation for many interviews, skipping the ones that are not
+     * {@code PENDING}. Each interviewer's list is then cleared of their finished interviews in one pass,
+     * instead of one search of the list per interview.
+     *
+     * @param interviews     the interviews to be given the result
+     * @param result         {@code InterviewStatus.PASS} or {@code InterviewStatus.FAIL}
+     * @param recommendation the recommendation for all the interviews
+     * @return the interviews that were {@code PENDING} and have been given the result
+     * @see Employee#removeFiles(Set)
+     */
+    public static ArrayList<Interview> setResults(List<Interview> interviews, InterviewStatus result,
+                                                  String recommendation) {
+        ArrayList<Interview> changed = new ArrayList<>();
+        HashMap<Employee, Set<Object>> finished = new HashMap<>();
+        for (Interview interview : interviews) {
+            if (!interview.getStatus().equals(InterviewStatus.PENDING)) continue;
+            interview.notifyHolders(result);
+            interview.setRecommendation(recommendation);
+            changed.add(interview);
+            if (interview.isFinished()) {
+                finished.computeIfAbsent(interview.interviewer,
+                        interviewer -> Collections.newSetFromMap(new IdentityHashMap<>())).add(interview);
+            }
+        }
+        for (Employee interviewer : finished.keySet()) {
+            interviewer.removeFiles(finished.get(interviewer));
+        }
+        return changed;
     }
 
     /**
@@ -137,17 +245,24 @@ public class Interview implements Filterable, Serializable, ShowAble {
     }
 
     /**
-     * Notify all the holders and remove this from interviewer's list if interview is finished.
+     * Change the {@code status} of this interview and notify the round it is in and the application. Removing
+     * a finished interview from the interviewer's list is left to the caller.
      *
+     * @param status the new {@code status} of this interview
      * @see Application#update(Interview)
-     * @see InterviewStatus
-     * @see Employee#removeFile(Object)
+     * @see InterviewRound#updateStatus(Application, InterviewStatus, InterviewStatus)
      */
-    private void notifyHolders() {
+    private void notifyHolders(InterviewStatus status) {
+        InterviewStatus previous = this.status;
+        this.status = status;
+        filterKeys = null;
+        FilterKeys.markModified();
+        if (interviewRound != null) interviewRound.updateStatus(application, previous, status);
         application.update(this);
-        if (status.equals(InterviewStatus.FAIL) || status.equals(InterviewStatus.PASS)) {
-            interviewer.removeFile(this);
-        }
+    }
+
+    private boolean isFinished() {
+        return status.equals(InterviewStatus.FAIL) || status.equals(InterviewStatus.PASS);
     }
 
     /**
@@ -195,4 +310,25 @@ public class Interview implements Filterable, Serializable, ShowAble {
         return map;
     }
 
+    @Override
+    public FilterKeys getFilterKeys() {
+        if (filterKeys == null) filterKeys = new FilterKeys(getFilterMap());
+        return filterKeys;
+    }
+
+    @Override
+    public boolean containsWord(String word) {
+        return getApplication().getDocumentManager().containsWord(word);
+    }
+
+    @Override
+    public Set<String> getWords() {
+        return getApplication().getDocumentManager().getWords();
+    }
+
+    @Override
+    public long getWordsVersion() {
+        return getApplication().getDocumentManager().getWordsVersion();
+    }
+
 }
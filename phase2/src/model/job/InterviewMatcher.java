@@ -0,0 +1,142 @@
+package model.job;
+
+import model.enums.InterviewStatus;
+import model.exceptions.WrongEmployeeTypeException;
+import model.exceptions.WrongInterviewStatusException;
+import model.storage.EmploymentCenter;
+import model.user.Employee;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Class {@code InterviewMatcher} matches every unmatched interview of an {@code InterviewRound} with an
+ * interviewer at once, instead of one interview at a time.
+ * <p>
+ * Each interview goes to the interviewer with the fewest pending interviews at that moment, counting
+ * the interviews given out by this matcher, and ties go to the interviewer who comes first. An
+ * interviewer who has reached the cap gets no more interviews, so some interviews may stay unmatched.
+ *
+ * @author group 0120 of CSC207 summer 2019
+ * @see Interview#match(Employee, String, EmploymentCenter)
+ * @see InterviewRound#getUnmatchedApplications()
+ * @since 2019-08-18
+ */
+public class InterviewMatcher {
+
+    /**
+     * The interview round whose interviews are matched.
+     */
+    private InterviewRound interviewRound;
+
+    /**
+     * The interviewers the interviews can be given to, in the order ties are broken by.
+     */
+    private List<Employee> interviewers;
+
+    /**
+     * The most pending interviews an interviewer can have after matching.
+     */
+    private int cap;
+
+    /**
+     * Create a new {@code InterviewMatcher}.
+     *
+     * @param interviewRound the interview round whose interviews are matched
+     * @param interviewers   the interviewers the interviews can be given to
+     * @param cap            the most pending interviews an interviewer can have after matching
+     */
+    public InterviewMatcher(InterviewRound interviewRound, List<Employee> interviewers, int cap) {
+        this.interviewRound = interviewRound;
+        this.interviewers = interviewers;
+        this.cap = cap;
+    }
+
+    /**
+     * Decide which interviewer each unmatched interview goes to, without matching any of them.
+     *
+     * @return a linked hash map from application to the interviewer of its interview in this round,
+     * in the order of the applications in the round
+     * @throws WrongEmployeeTypeException one of the interviewers is not an interviewer
+     */
+    public LinkedHashMap<Application, Employee> assign() throws WrongEmployeeTypeException {
+        HashMap<Employee, Integer> loads = new HashMap<>();
+        HashMap<Employee, Integer> order = new HashMap<>();
+        for (Employee interviewer : interviewers) {
+            loads.put(interviewer, getPendingCount(interviewer));
+            order.put(interviewer, order.size());
+        }
+        PriorityQueue<Employee> leastLoaded = new PriorityQueue<>((first, second) -> {
+            int result = Integer.compare(loads.get(first), loads.get(second));
+            return result != 0 ? result : Integer.compare(order.get(first), order.get(second));
+        });
+        for (Employee interviewer : interviewers) {
+            if (loads.get(interviewer) < cap) leastLoaded.add(interviewer);
+        }
+        LinkedHashMap<Application, Employee> assignments = new LinkedHashMap<>();
+        for (Application application : interviewRound.getUnmatchedApplications()) {
+            Employee interviewer = leastLoaded.poll();
+            if (interviewer == null) break;
+            assignments.put(application, interviewer);
+            loads.put(interviewer, loads.get(interviewer) + 1);
+            if (loads.get(interviewer) < cap) leastLoaded.add(interviewer);
+        }
+        return assignments;
+    }
+
+    /**
+     * Match the interviews of some applications in a round with their interviewers, then send each
+     * interviewer one message for all the interviews they got. The status of every interview is checked
+     * before any of them is matched, so either all of them are matched or none is, and the change can be
+     * recorded as a whole.
+     *
+     * @param roundName        the name of the round the interviews are in
+     * @param assignments      a map from application to the interviewer of its interview
+     * @param employmentCenter the {@code EmploymentCenter} that contains all users
+     * @throws WrongInterviewStatusException one of the interviews is not UNMATCHED; none is matched
+     * @see #assign()
+     */
+    public static void match(String roundName, LinkedHashMap<Application, Employee> assignments,
+                             EmploymentCenter employmentCenter) throws WrongInterviewStatusException {
+        for (Application application : assignments.keySet()) {
+            Interview interview = application.getInterviewByRound(roundName);
+            if (interview == null || !interview.getStatus().equals(InterviewStatus.UNMATCHED)) {
+                throw new WrongInterviewStatusException();
+            }
+        }
+        LinkedHashMap<Employee, Integer> counts = new LinkedHashMap<>();
+        try {
+            for (Application application : assignments.keySet()) {
+                Employee interviewer = assignments.get(application);
+                application.getInterviewByRound(roundName).assign(interviewer, roundName);
+                counts.merge(interviewer, 1, Integer::sum);
+                application.getApplicant(employmentCenter).receiveMessage("You received a new interview!");
+            }
+        } finally {
+            for (Employee interviewer : counts.keySet()) {
+                int count = counts.get(interviewer);
+                interviewer.receiveMessage(count == 1 ? "You got an new interview!" :
+                        "You got " + count + " new interviews!");
+            }
+        }
+    }
+
+    /**
+     * Return the number of pending interviews of an interviewer.
+     *
+     * @param interviewer the interviewer
+     * @return the number of interviews of {@code interviewer} that are {@code PENDING}
+     * @throws WrongEmployeeTypeException {@code interviewer} is not an interviewer
+     */
+    private static int getPendingCount(Employee interviewer) throws WrongEmployeeTypeException {
+        int count = 0;
+        ArrayList<Interview> interviews = interviewer.getInterviews();
+        for (Interview interview : interviews) {
+            if (interview.getStatus().equals(InterviewStatus.PENDING)) count++;
+        }
+        return count;
+    }
+}
@@ -3,11 +3,19 @@ package model.job;
 import gui.panels.Filter;
 import model.enums.InterviewRoundStatus;
 import model.enums.InterviewStatus;
+import model.interfaces.Encodable;
+import model.interfaces.FilterKeys;
 import model.interfaces.Filterable;
+import model.storage.SnapshotInput;
+import model.storage.SnapshotOutput;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 
 /**
  * Class {@code InterviewRound} stores information about a specific round for a
@@ -20,7 +28,7 @@ import java.util.HashMap;
  * @see Interview
  * @since 2019-08-04
  */
-public class InterviewRound implements Filterable, Serializable {
+public class InterviewRound implements Filterable, Serializable, Encodable {
 
     private static final long serialVersionUID = -9079019848528946667L;
 
@@ -34,7 +42,6 @@ public class InterviewRound implements Filterable, Serializable {
     /**
      * All the applications that made into this interview round.
      *
-     * @see #getInterviews()
      * @see #getCurrentRoundApplications()
      * @see #getUnmatchedApplications()
      * @see #getApplicationsByStatus(InterviewStatus)
@@ -51,6 +58,23 @@ public class InterviewRound implements Filterable, Serializable {
      */
     private InterviewRoundStatus status;
 
+    /**
+     * The search values of this interview round, built when first needed and dropped when
+     * {@code status} or the applications in this round change.
+     *
+     * @see #getFilterKeys()
+     */
+    private transient FilterKeys filterKeys;
+
+    /**
+     * The applications in this round by the status of their interview in this round, kept up to date by
+     * {@code Interview.setStatus}, so that the round does not look up every interview to find its status.
+     * It is built from {@code applications} when first needed.
+     *
+     * @see #getStatusApplications()
+     * @see #updateStatus(Application, InterviewStatus, InterviewStatus)
+     */
+    private transient EnumMap<InterviewStatus, LinkedHashSet<Application>> statusApplications;
 
     /**
      * Create a new interviewRound.
@@ -63,6 +87,34 @@ public class InterviewRound implements Filterable, Serializable {
         this.applications = new ArrayList<>();
     }
 
+    /**
+     * Constructor for {@code InterviewRound} read from a snapshot.
+     *
+     * @param input the snapshot this {@code InterviewRound} is read from
+     * @throws IOException the {@code InterviewRound} can not be read
+     * @see #encode(SnapshotOutput)
+     */
+    public InterviewRound(SnapshotInput input) throws IOException {
+        input.register(this);
+        this.roundName = input.readString();
+        this.status = input.readEnum(InterviewRoundStatus.class);
+        this.applications = input.readList();
+    }
+
+    /**
+     * Write this {@code InterviewRound} to a snapshot.
+     *
+     * @param output the snapshot this {@code InterviewRound} is written to
+     * @throws IOException the {@code InterviewRound} can not be written
+     * @see #InterviewRound(SnapshotInput)
+     */
+    @Override
+    public void encode(SnapshotOutput output) throws IOException {
+        output.writeString(roundName);
+        output.writeEnum(status);
+        output.writeList(applications);
+    }
+
     public String getRoundName() {
         return this.roundName;
     }
@@ -87,13 +139,44 @@ public class InterviewRound implements Filterable, Serializable {
      * @return the {@code ArrayList<Application} containing all applications of a given status
      */
     private ArrayList<Application> getApplicationsByStatus(InterviewStatus status) {
-        ArrayList<Application> passedApplications = new ArrayList<>();
-        for (Application application : this.applications) {
-            if (application.getInterviewByRound(this.roundName).getStatus().equals(status)) {
-                passedApplications.add(application);
+        return new ArrayList<>(getStatusApplications().get(status));
+    }
+
+    /**
+     * Return the applications in this round by the status of their interview, building the map from
+     * {@code applications} if it has not been built since this round was created or loaded.
+     *
+     * @return an enum map from interview status to the applications whose interview has that status
+     * @see #statusApplications
+     */
+    private EnumMap<InterviewStatus, LinkedHashSet<Application>> getStatusApplications() {
+        if (statusApplications == null) {
+            statusApplications = new EnumMap<>(InterviewStatus.class);
+            for (InterviewStatus status : InterviewStatus.values()) {
+                statusApplications.put(status, new LinkedHashSet<>());
+            }
+            for (Application application : applications) {
+                Interview interview = application.getInterviewByRound(roundName);
+                interview.setInterviewRound(this);
+                statusApplications.get(interview.getStatus()).add(application);
             }
         }
-        return passedApplications;
+        return statusApplications;
+    }
+
+    /**
+     * Move an application to the set of its new interview status. It is called by the interview of the
+     * application whenever its status changes.
+     *
+     * @param application the application whose interview changed
+     * @param previous    the status the interview had
+     * @param status      the status the interview has now
+     * @see Interview#setStatus(InterviewStatus)
+     */
+    void updateStatus(Application application, InterviewStatus previous, InterviewStatus status) {
+        if (statusApplications != null && statusApplications.get(previous).remove(application)) {
+            statusApplications.get(status).add(application);
+        }
     }
 
     public InterviewRoundStatus getStatus() {
@@ -102,6 +185,8 @@ public class InterviewRound implements Filterable, Serializable {
 
     public void setStatus(InterviewRoundStatus status) {
         this.status = status;
+        filterKeys = null;
+        FilterKeys.markModified();
     }
 
     /**
@@ -111,41 +196,21 @@ public class InterviewRound implements Filterable, Serializable {
      * If there exists one interview corresponding to current interview round which has a status of {@code InterviewStatus.PENDING},
      * then the interview round status should be set {@code InterviewRoundStatus.PENDING}. Otherwise, check whether
      * {@code this.applications} is non empty. Set the status to {@code InterviewRoundStatus.Finished} if the answer is yes.
+     * Only the sizes of the sets in {@code statusApplications} are looked at, so no interview is visited.
      *
      * @see InterviewRoundManager#checkStatus()
      */
     void checkStatus() {
-        ArrayList<Interview> interviews = this.getInterviews();
-        boolean finished = true;
-        for (Interview interview : interviews) {
-            if (interview.getStatus().equals(InterviewStatus.UNMATCHED)) {
-                this.setStatus(InterviewRoundStatus.MATCHING);
-                finished = false;
-                break;
-            } else if (interview.getStatus().equals(InterviewStatus.PENDING)) {
-                this.setStatus(InterviewRoundStatus.PENDING);
-                finished = false;
-                break;
-            }
-        }
-        if (finished && !this.applications.isEmpty()) {
+        EnumMap<InterviewStatus, LinkedHashSet<Application>> statusApplications = getStatusApplications();
+        if (!statusApplications.get(InterviewStatus.UNMATCHED).isEmpty()) {
+            this.setStatus(InterviewRoundStatus.MATCHING);
+        } else if (!statusApplications.get(InterviewStatus.PENDING).isEmpty()) {
+            this.setStatus(InterviewRoundStatus.PENDING);
+        } else if (!this.applications.isEmpty()) {
             this.setStatus(InterviewRoundStatus.FINISHED);
         }
     }
 
-    /**
-     * Get all interviews in the current round. This is a helper function for {@code checkStatus}.
-     *
-     * @return the {@code ArrayList<Interview>} that consists of all interviews in the current round
-     */
-    private ArrayList<Interview> getInterviews() {
-        ArrayList<Interview> interviews = new ArrayList<>();
-        for (Application application : this.applications) {
-            interviews.add(application.getInterviewByRound(this.roundName));
-        }
-        return interviews;
-    }
-
     /**
      * Start the new interview round. All {@code applications} in the list that is passed in are going to be appended to
      * the field {@code this.applications} and will be added a new interview on.
@@ -153,12 +218,18 @@ public class InterviewRound implements Filterable, Serializable {
      * @param applications the applications that wait for a new interview
      * @see InterviewRoundManager#nextRound()
      */
-    void start(ArrayList<Application> applications) {
+    void start(Collection<Application> applications) {
         this.setStatus(InterviewRoundStatus.MATCHING);
+        LinkedHashSet<Application> unmatched = getStatusApplications().get(InterviewStatus.UNMATCHED);
         for (Application application : applications) {
             this.applications.add(application);
-            application.addInterview(this.roundName, new Interview(application));
+            Interview interview = new Interview(application);
+            interview.setInterviewRound(this);
+            application.addInterview(this.roundName, interview);
+            unmatched.add(application);
         }
+        filterKeys = null;
+        FilterKeys.markModified();
     }
 
     /**
@@ -169,8 +240,11 @@ public class InterviewRound implements Filterable, Serializable {
      */
     void applicationCancel(Application application) {
         applications.remove(application);
+        filterKeys = null;
+        FilterKeys.markModified();
         Interview interview = application.getInterviewByRound(roundName);
         interview.cancel();
+        getStatusApplications().get(interview.getStatus()).remove(application);
     }
 
     /**
@@ -188,4 +262,10 @@ public class InterviewRound implements Filterable, Serializable {
         map.put("status", status.toString());
         return map;
     }
+
+    @Override
+    public FilterKeys getFilterKeys() {
+        if (filterKeys == null) filterKeys = new FilterKeys(getFilterMap());
+        return filterKeys;
+    }
 }
@@ -5,10 +5,16 @@ import model.enums.InterviewRoundStatus;
 import model.enums.InterviewStatus;
 import model.enums.JobPostingStatus;
 import model.exceptions.*;
+import model.interfaces.Encodable;
 import model.storage.EmploymentCenter;
+import model.storage.SnapshotInput;
+import model.storage.SnapshotOutput;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 
 /**
  * Class {@code InterviewRoundManager} contains all the {@code InterviewRound} happened
@@ -19,7 +25,7 @@ import java.util.ArrayList;
  * @see JobPosting
  * @since 2019-08-04
  */
-public class InterviewRoundManager implements Serializable {
+public class InterviewRoundManager implements Serializable, Encodable {
 
     private static final long serialVersionUID = 153669577076528602L;
 
@@ -41,12 +47,38 @@ public class InterviewRoundManager implements Serializable {
     private ArrayList<InterviewRound> interviewRounds;
 
     /**
-     * All the remaining {@code Application} that has not been rejected.
+     * All the remaining {@code Application} that has not been rejected, in the order they applied. An application
+     * leaves it when it is cancelled or rejected, so nothing is rebuilt when the status is checked.
+     * {@code Application} does not override {@code equals}, so this set tells applications apart by identity.
+     * <p>
+     * It is written to snapshots by {@code encode}, and only read by {@code readObject} from a checkpoint made
+     * with default serialization, where it was an {@code ArrayList}.
      *
-     * @see #getHiredApplications()
+     * @see #getRemainingApplications()
+     * @see #updateStatus(Application)
      * @see #applicationCancel(Application)
      */
-    private ArrayList<Application> remainingApplications;
+    private transient LinkedHashSet<Application> remainingApplications;
+
+    /**
+     * The remaining applications that are {@code ApplicationStatus.HIRED}. It is built from
+     * {@code remainingApplications} when first needed, which is also when the remaining applications are
+     * told to report their status changes to this manager.
+     *
+     * @see #getHiredApplications()
+     * @see #updateStatus(Application)
+     */
+    private transient LinkedHashSet<Application> hiredApplications;
+
+    /**
+     * The position in {@code interviewRounds} of the current round, or -1 if no round has started. It is
+     * found when first needed after this manager is created or loaded, and moved on by {@code nextRound},
+     * the only place a round leaves {@code InterviewRoundStatus.EMPTY}.
+     *
+     * @see #getCurrentIndex()
+     * @see #nextRound()
+     */
+    private transient Integer currentIndex;
 
     /**
      * Create a new interviewRoundManager.
@@ -58,7 +90,63 @@ public class InterviewRoundManager implements Serializable {
     InterviewRoundManager(JobPosting jobPosting, ArrayList<Application> applications) {
         this.jobPosting = jobPosting;
         this.interviewRounds = new ArrayList<>();
-        this.remainingApplications = applications;
+        this.remainingApplications = new LinkedHashSet<>(applications);
+    }
+
+    /**
+     * Constructor for {@code InterviewRoundManager} read from a snapshot.
+     * <p>
+     * {@code remainingApplications} starts as all the applications of the job posting, so it is only
+     * written if some of them have left it by now.
+     *
+     * @param input the snapshot this {@code InterviewRoundManager} is read from
+     * @throws IOException the {@code InterviewRoundManager} can not be read
+     * @see #encode(SnapshotOutput)
+     */
+    public InterviewRoundManager(SnapshotInput input) throws IOException {
+        input.register(this);
+        this.jobPosting = input.readObject();
+        this.interviewRounds = input.readList();
+        if (input.readBoolean()) {
+            this.remainingApplications = new LinkedHashSet<>(jobPosting.getApplications());
+        } else {
+            this.remainingApplications = new LinkedHashSet<>(input.<Application>readList());
+        }
+    }
+
+    /**
+     * Restore the fields written by default serialization, turning the list of remaining applications into
+     * the set this manager keeps now.
+     *
+     * @param input the stream this {@code InterviewRoundManager} is read from
+     * @throws IOException            the stream can not be read
+     * @throws ClassNotFoundException a class in the stream can not be found
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream input) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = input.readFields();
+        this.jobPosting = (JobPosting) fields.get("jobPosting", null);
+        this.interviewRounds = (ArrayList<InterviewRound>) fields.get("interviewRounds", null);
+        this.remainingApplications =
+                new LinkedHashSet<>((ArrayList<Application>) fields.get("remainingApplications", null));
+    }
+
+    /**
+     * Write this {@code InterviewRoundManager} to a snapshot.
+     *
+     * @param output the snapshot this {@code InterviewRoundManager} is written to
+     * @throws IOException the {@code InterviewRoundManager} can not be written
+     * @see #InterviewRoundManager(SnapshotInput)
+     */
+    @Override
+    public void encode(SnapshotOutput output) throws IOException {
+        output.writeObject(jobPosting);
+        output.writeList(interviewRounds);
+        ArrayList<Application> applications = jobPosting.getApplications();
+        boolean all = remainingApplications.size() == applications.size() &&
+                remainingApplications.containsAll(applications);
+        output.writeBoolean(all);
+        if (!all) output.writeList(new ArrayList<>(remainingApplications));
     }
 
     public JobPosting getJobPosting() {
@@ -81,15 +169,27 @@ public class InterviewRoundManager implements Serializable {
      * @see #endApplication(Application)
      */
     public InterviewRound getCurrentInterviewRound() {
-        InterviewRound currInterviewRound = null;
-        for (InterviewRound interviewRound : interviewRounds) {
-            if (interviewRound.getStatus().equals(InterviewRoundStatus.EMPTY)) {
-                break;
-            } else {
-                currInterviewRound = interviewRound;
+        int index = getCurrentIndex();
+        return index < 0 ? null : interviewRounds.get(index);
+    }
+
+    /**
+     * Return the position of the current round, finding it by searching for the first {@code InterviewRound}
+     * that is {@code InterviewRoundStatus.EMPTY} if it is not known yet.
+     *
+     * @return the position of the current round in {@code interviewRounds}, or -1 if no round has started
+     * @see #currentIndex
+     */
+    private int getCurrentIndex() {
+        if (currentIndex == null) {
+            int index = 0;
+            while (index < interviewRounds.size() &&
+                    !interviewRounds.get(index).getStatus().equals(InterviewRoundStatus.EMPTY)) {
+                index++;
             }
+            currentIndex = index - 1;
         }
-        return currInterviewRound;
+        return currentIndex;
     }
 
     /**
@@ -103,19 +203,45 @@ public class InterviewRoundManager implements Serializable {
     }
 
     /**
-     * Update the {@code remainingApplications} that contains all applications which have not been rejected.
+     * Return the remaining applications. The first time it is called after this manager is created or loaded,
+     * it drops the rejected applications, builds {@code hiredApplications} and tells every remaining
+     * application to report its status changes, so that both sets are kept up to date from then on.
      *
-     * @see InterviewRoundManager#checkStatus()
-     * @see JobPosting#endJobPosting()
+     * @return the applications which have not been rejected
+     * @see #updateStatus(Application)
      */
-    private void updateRemainingApplications() {
-        ArrayList<Application> tempApplications = new ArrayList<>();
-        for (Application application : remainingApplications) {
-            if (!application.getStatus().equals(ApplicationStatus.REJECTED)) {
-                tempApplications.add(application);
+    private LinkedHashSet<Application> getRemainingApplications() {
+        if (hiredApplications == null) {
+            hiredApplications = new LinkedHashSet<>();
+            remainingApplications.removeIf(application ->
+                    application.getStatus().equals(ApplicationStatus.REJECTED));
+            for (Application application : remainingApplications) {
+                application.setInterviewRoundManager(this);
+                if (application.getStatus().equals(ApplicationStatus.HIRED)) hiredApplications.add(application);
             }
         }
-        remainingApplications = tempApplications;
+        return remainingApplications;
+    }
+
+    /**
+     * Move a remaining application out of {@code remainingApplications} once it is rejected, and in or out of
+     * {@code hiredApplications} as it is hired or not. It is called by the application whenever its status changes.
+     *
+     * @param application the application whose status changed
+     * @see Application#setStatus(ApplicationStatus)
+     */
+    void updateStatus(Application application) {
+        if (hiredApplications == null) return;
+        ApplicationStatus status = application.getStatus();
+        if (status.equals(ApplicationStatus.HIRED)) {
+            hiredApplications.add(application);
+        } else {
+            hiredApplications.remove(application);
+        }
+        if (status.equals(ApplicationStatus.REJECTED)) {
+            remainingApplications.remove(application);
+            application.setInterviewRoundManager(null);
+        }
     }
 
     /**
@@ -130,45 +256,41 @@ public class InterviewRoundManager implements Serializable {
      */
     public void nextRound() throws WrongJobPostingStatusException, WrongInterviewRoundStatusException,
             NextRoundDoesNotExistException {
+        int index = getCurrentIndex();
         InterviewRound currentRound = getCurrentInterviewRound();
         if (!jobPosting.getStatus().equals(JobPostingStatus.PROCESSING)) {
             throw new WrongJobPostingStatusException(JobPostingStatus.PROCESSING);
         } else if (currentRound != null && !currentRound.getStatus().equals(InterviewRoundStatus.FINISHED)) {
             throw new WrongInterviewRoundStatusException();
-        } else if (interviewRounds.size() <= interviewRounds.indexOf(currentRound) + 1) {
+        } else if (interviewRounds.size() <= index + 1) {
             throw new NextRoundDoesNotExistException();
         } else {
-            InterviewRound nextRound = interviewRounds.get(interviewRounds.indexOf(currentRound) + 1);
-            nextRound.start(remainingApplications);
+            interviewRounds.get(index + 1).start(getRemainingApplications());
+            currentIndex = index + 1;
         }
     }
 
     /**
      * Update the status of current interview round calling {@code checkStatus} on current {@code interviewRound}.
-     * Then update {@code remainingApplications} by calling {@code updateRemainingApplications()}.
+     * {@code remainingApplications} is already up to date, since rejected applications leave it as they are rejected.
      *
      * @see gui.scenarios.recruiter.JobManageScenario
      */
     public void checkStatus() {
         InterviewRound interviewRound = getCurrentInterviewRound();
         if (interviewRound != null) interviewRound.checkStatus();
-        updateRemainingApplications();
+        getRemainingApplications();
     }
 
     /**
      * This is a helper method for {@code hire}. It returns all remaining applications which have the status
      * {@code ApplicationStatus.HIRE}.
      *
-     * @return {@code ArrayList<Application>} that contains all applications with status {@code ApplicationStatus.HIRE}
+     * @return {@code LinkedHashSet<Application>} that contains all applications with status {@code ApplicationStatus.HIRE}
      * @see InterviewRoundManager#hire
      */
-    private ArrayList<Application> getHiredApplications() {
-        ArrayList<Application> hiredApplications = new ArrayList<>();
-        for (Application application : remainingApplications) {
-            if (application.getStatus().equals(ApplicationStatus.HIRED)) {
-                hiredApplications.add(application);
-            }
-        }
+    private LinkedHashSet<Application> getHiredApplications() {
+        getRemainingApplications();
         return hiredApplications;
     }
 
@@ -177,7 +299,7 @@ public class InterviewRoundManager implements Serializable {
      * It is a helper method for {@code hire}.
      *
      * @return true if {@code currentRound} is null or {@code InterviewRoundStatus.EMPTY}; false otherwise
-     * @see InterviewRoundManager#hire(Application)
+     * @see InterviewRoundManager#hire(Application, EmploymentCenter)
      */
     private boolean currentRoundFinished() {
         InterviewRound currentRound = getCurrentInterviewRound();
@@ -185,19 +307,21 @@ public class InterviewRoundManager implements Serializable {
     }
 
     /**
-     * Hire an applicant by setting its status to {@code ApplicationStatus.HIRE}.
+     * Hire an applicant by setting its status to {@code ApplicationStatus.HIRE}, then notify the applicant.
      * This will happen only when the following conditions are satisfied:
      * job posting is in {@code JobPostingStatus.PROCESSING};
      * application is in {@code ApplicationStatus.PENDING};
      * current round is finished;
      * the job is still vacant.
      *
-     * @param application the application to be hired
+     * @param application      the application to be hired
+     * @param employmentCenter the {@code EmploymentCenter} that contains all users
      * @throws WrongJobPostingStatusException  status of job posting is not {@code PROCESSING}
      * @throws WrongApplicationStatusException status of application is not {@code PENDING}
      * @see gui.scenarios.recruiter.InterviewRoundScenario
      */
-    public void hire(Application application) throws WrongJobPostingStatusException, WrongApplicationStatusException,
+    public void hire(Application application, EmploymentCenter employmentCenter)
+            throws WrongJobPostingStatusException, WrongApplicationStatusException,
             CurrentRoundUnfinishedException, JobPostingAlreadyFilledException {
         if (!jobPosting.getStatus().equals(JobPostingStatus.PROCESSING)) {
             throw new WrongJobPostingStatusException(JobPostingStatus.PROCESSING);
@@ -209,6 +333,7 @@ public class InterviewRoundManager implements Serializable {
             throw new JobPostingAlreadyFilledException();
         } else {
             application.setStatus(ApplicationStatus.HIRED);
+            application.getApplicant(employmentCenter).receiveMessage("You got hired by a job!");
         }
     }
 
@@ -219,18 +344,20 @@ public class InterviewRoundManager implements Serializable {
      * @see JobPosting#applicationCancel(Application, EmploymentCenter)
      */
     void applicationCancel(Application application) {
-        remainingApplications.remove(application);
+        if (getRemainingApplications().remove(application)) {
+            hiredApplications.remove(application);
+            application.setInterviewRoundManager(null);
+        }
         InterviewRound interviewRound = getCurrentInterviewRound();
         if (interviewRound != null) interviewRound.applicationCancel(application);
     }
 
     void end() {
-        for (Application application : remainingApplications) {
+        for (Application application : new ArrayList<>(getRemainingApplications())) {
             if (application.getStatus().equals(ApplicationStatus.PENDING)) {
                 endApplication(application);
             }
         }
-        updateRemainingApplications();
     }
 
     private void endApplication(Application application) {
@@ -6,11 +6,16 @@ import model.enums.ApplicationStatus;
 import model.enums.JobPostingStatus;
 import model.exceptions.ApplicationAlreadyExistsException;
 import model.exceptions.WrongJobPostingStatusException;
+import model.interfaces.Encodable;
+import model.interfaces.FilterKeys;
 import model.interfaces.Filterable;
 import model.interfaces.ShowAble;
 import model.storage.EmploymentCenter;
+import model.storage.SnapshotInput;
+import model.storage.SnapshotOutput;
 import model.user.Company;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
@@ -26,7 +31,7 @@ import java.util.HashMap;
  * @see JobPostingStatus
  * @since 2019-08-04
  */
-public class JobPosting implements Filterable, Serializable, ShowAble {
+public class JobPosting implements Filterable, Serializable, ShowAble, Encodable {
 
     private static final long serialVersionUID = -3212798175590179109L;
 
@@ -70,6 +75,21 @@ public class JobPosting implements Filterable, Serializable, ShowAble {
      */
     private JobPostingStatus status;
 
+    /**
+     * The close date parsed from {@code jobDetails}, cached so that it is parsed only once.
+     * It is {@code null} until first used or if the close date can not be parsed.
+     *
+     * @see #getCloseDate()
+     */
+    private transient LocalDate closeDate;
+
+    /**
+     * The search values of this job posting, built when first needed. They only come from
+     * {@code jobDetails}, which never changes, so they are kept for good.
+     *
+     * @see #getFilterKeys()
+     */
+    private transient FilterKeys filterKeys;
 
     /**
      * Create a new job posting.
@@ -82,6 +102,36 @@ public class JobPosting implements Filterable, Serializable, ShowAble {
         this.status = JobPostingStatus.OPEN;
     }
 
+    /**
+     * Constructor for {@code JobPosting} read from a snapshot.
+     *
+     * @param input the snapshot this {@code JobPosting} is read from
+     * @throws IOException the {@code JobPosting} can not be read
+     * @see #encode(SnapshotOutput)
+     */
+    public JobPosting(SnapshotInput input) throws IOException {
+        input.register(this);
+        this.jobDetails = input.readStringMap();
+        this.status = input.readEnum(JobPostingStatus.class);
+        this.applications = input.readList();
+        this.interviewRoundManager = input.readObject();
+    }
+
+    /**
+     * Write this {@code JobPosting} to a snapshot.
+     *
+     * @param output the snapshot this {@code JobPosting} is written to
+     * @throws IOException the {@code JobPosting} can not be written
+     * @see #JobPosting(SnapshotInput)
+     */
+    @Override
+    public void encode(SnapshotOutput output) throws IOException {
+        output.writeStringMap(jobDetails);
+        output.writeEnum(status);
+        output.writeList(applications);
+        output.writeObject(interviewRoundManager);
+    }
+
     public InterviewRoundManager getInterviewRoundManager() {
         return interviewRoundManager;
     }
@@ -98,24 +148,41 @@ public class JobPosting implements Filterable, Serializable, ShowAble {
         return jobDetails.get("Job id:");
     }
 
+    public String getCompanyId() {
+        return jobDetails.get("Company id:");
+    }
+
     int getNumOfPositions() {
         return Integer.parseInt(jobDetails.get("Num of positions:"));
     }
 
     /**
-     * Return whether the close date has been passed or not. This is a helper function for {@code startProcessing}.
+     * Return the close date of this job posting, or {@code null} if it can not be parsed.
+     *
+     * @return the close date of this job posting, or {@code null} if it can not be parsed
+     * @see EmploymentCenter#updateOpenJobPostings()
+     */
+    public LocalDate getCloseDate() {
+        if (closeDate == null) {
+            try {
+                closeDate = LocalDate.parse(jobDetails.get("Close date:"));
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+        }
+        return closeDate;
+    }
+
+    /**
+     * Return whether the close date has been passed or not.
      *
      * @return whether the close date has been passed.
      * @see JobPosting#startProcessing()
+     * @see EmploymentCenter#updateOpenJobPostings()
      */
-    private boolean shouldClose() {
-        LocalDate closeDate;
-        try {
-            closeDate = LocalDate.parse(jobDetails.get("Close date:"));
-        } catch (DateTimeParseException e) {
-            return false;
-        }
-        return closeDate.isBefore(Main.getCurrentDate());
+    public boolean shouldClose() {
+        LocalDate closeDate = getCloseDate();
+        return closeDate != null && closeDate.isBefore(Main.getCurrentDate());
     }
 
     /**
@@ -132,13 +199,17 @@ public class JobPosting implements Filterable, Serializable, ShowAble {
 
     /**
      * The method is called when the job posting process is finished. It sets the status to {@code JobPostingStatus.FINISHED}
-     * and empty {@code remainingApplications} list of the interview round manager.
+     * and empty {@code remainingApplications} set of the interview round manager.
      *
+     * @param employmentCenter the place where the job posting is stored by status
      * @see gui.scenarios.recruiter.JobManageScenario
+     * @see EmploymentCenter#updateJobPostingStatus(JobPosting, JobPostingStatus)
      */
-    public void endJobPosting() {
+    public void endJobPosting(EmploymentCenter employmentCenter) {
+        JobPostingStatus previousStatus = status;
         status = JobPostingStatus.FINISHED;
         if (interviewRoundManager != null) interviewRoundManager.end();
+        employmentCenter.updateJobPostingStatus(this, previousStatus);
     }
 
     /**
@@ -238,4 +309,10 @@ public class JobPosting implements Filterable, Serializable, ShowAble {
         map.put("close date", jobDetails.get("Close date:"));
         return map;
     }
+
+    @Override
+    public FilterKeys getFilterKeys() {
+        if (filterKeys == null) filterKeys = new FilterKeys(getFilterMap());
+        return filterKeys;
+    }
 }
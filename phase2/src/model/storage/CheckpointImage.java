@@ -0,0 +1,97 @@
+package model.storage;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+
+/**
+ * Class {@code CheckpointImage} is a checkpoint encoded in memory by {@code ShardedCheckpoint}, waiting
+ * to be written. It holds the bytes of only the shards that have changed since the last checkpoint was
+ * encoded, by key, with the ids of the document contents each of them refers to; the shards that have not
+ * changed are taken from the last checkpoint written.
+ *
+ * @author group 0120 of CSC207 summer 2019
+ * @see ShardedCheckpoint#encode(EmploymentCenter)
+ * @see ShardedCheckpoint#write(CheckpointImage)
+ * @since 2019-08-14
+ */
+public class CheckpointImage {
+
+    /**
+     * The sequence number of the last journal record folded into the checkpoint.
+     */
+    private long journalSequence;
+
+    /**
+     * The keys of the shards that have changed, or {@code null} if all shards are in {@code shards} and
+     * nothing is taken from the last checkpoint.
+     */
+    private HashSet<String> changedKeys;
+
+    /**
+     * A hash map from key to the bytes of the shards that have changed. A changed key that is not in it
+     * belongs to a shard that no longer has anything in it.
+     */
+    private LinkedHashMap<String, byte[]> shards;
+
+    /**
+     * A hash map from key to the ids of the contents in the {@code DocumentStore} each shard refers to.
+     */
+    private HashMap<String, HashSet<Long>> contentIds;
+
+    /**
+     * The id of the next content in the {@code DocumentStore} when the checkpoint was encoded.
+     */
+    private long watermark;
+
+    /**
+     * The generation of the last checkpoint written when this one was encoded.
+     *
+     * @see ShardedCheckpoint#write(CheckpointImage)
+     */
+    private int generation;
+
+    /**
+     * Create a new {@code CheckpointImage}.
+     *
+     * @param journalSequence the sequence number of the last journal record folded into the checkpoint
+     * @param changedKeys     the keys of the shards that have changed, or {@code null} if all shards are given
+     * @param shards          the bytes of the shards that have changed, by key
+     * @param contentIds      the ids of the document contents each shard refers to, by key
+     * @param watermark       the id of the next document content when the checkpoint was encoded
+     * @param generation      the generation of the last checkpoint written when this one was encoded
+     */
+    CheckpointImage(long journalSequence, HashSet<String> changedKeys, LinkedHashMap<String, byte[]> shards,
+                    HashMap<String, HashSet<Long>> contentIds, long watermark, int generation) {
+        this.journalSequence = journalSequence;
+        this.changedKeys = changedKeys;
+        this.shards = shards;
+        this.contentIds = contentIds;
+        this.watermark = watermark;
+        this.generation = generation;
+    }
+
+    long getJournalSequence() {
+        return journalSequence;
+    }
+
+    HashSet<String> getChangedKeys() {
+        return changedKeys;
+    }
+
+    LinkedHashMap<String, byte[]> getShards() {
+        return shards;
+    }
+
+    HashSet<Long> getContentIds(String key) {
+        return contentIds.get(key);
+    }
+
+    long getWatermark() {
+        return watermark;
+    }
+
+    int getGeneration() {
+        return generation;
+    }
+}
@@ -0,0 +1,373 @@
+package model.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Class {@code DocumentStore} keeps the content of documents in a file of its own, so
+ * that the content is neither held in memory nor written into every snapshot.
+ * <p>
+ * Contents are appended, each with its id, and the position of every id in the file is
+ * found when the store is opened. A content put is only given its id and kept in memory;
+ * it is written when the store is forced to disk, on the thread that saves in the
+ * background, so that encoding a checkpoint never waits for the disk. The id of a content never changes once given, so the
+ * file can be rewritten without the contents that no checkpoint refers to any more. The
+ * contents read most recently are kept in a small cache.
+ *
+ * @author group 0120 of CSC207 summer 2019
+ * @see model.job.Document
+ * @see SnapshotCodec
+ * @see main.Main
+ * @since 2019-08-12
+ */
+public class DocumentStore {
+
+    // The first four bytes of a file written before contents had ids, "DOCS"; the id of a content was its position
+    private static final int LEGACY_MAGIC = 0x444F4353;
+
+    // The first four bytes of the file, "DOC2"
+    private static final int MAGIC = 0x444F4332;
+
+    // The number of bytes in front of each content, its id and its length
+    private static final int RECORD_HEADER = Long.BYTES + Integer.BYTES;
+
+    // The number of contents kept in the cache
+    private static final int CACHE_SIZE = 32;
+
+    // The number of bytes of contents no longer referred to below which the file is not rewritten
+    private static final long MIN_GARBAGE = 64 * 1024;
+
+    // The extension of the file that is being written when the store is rewritten
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+
+    /**
+     * The file contents are stored in.
+     */
+    private File file;
+
+    /**
+     * The channel of {@code file}, open for as long as the system runs, and opened again after the
+     * file is rewritten.
+     *
+     * @see #DocumentStore(File)
+     * @see #compact(Set, long)
+     */
+    private FileChannel channel;
+
+    /**
+     * A hash map from the id of each content to the position of its bytes in the file.
+     */
+    private HashMap<Long, Long> positions = new HashMap<>();
+
+    /**
+     * A hash map from the id of each content to its length in bytes.
+     */
+    private HashMap<Long, Integer> lengths = new HashMap<>();
+
+    /**
+     * The id given to the next content put. It is guarded by the lock of {@code pending}.
+     *
+     * @see #put(byte[])
+     * @see #nextId()
+     */
+    private long nextId = 1;
+
+    /**
+     * The contents put but not written to the file yet, by id, in the order they were put. Contents are put
+     * on the thread that makes changes and written on the thread that saves, so it has a lock of its own.
+     *
+     * @see #put(byte[])
+     * @see #force()
+     */
+    private LinkedHashMap<Long, byte[]> pending = new LinkedHashMap<>();
+
+    /**
+     * The contents read most recently, by id, with the least recently used first.
+     *
+     * @see #get(long)
+     */
+    private LinkedHashMap<Long, String> cache = new LinkedHashMap<Long, String>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /**
+     * Open the {@code DocumentStore} stored in the given file, creating the file if it does not exist.
+     * A file written before contents had ids is rewritten once, keeping the position of each content
+     * as its id.
+     *
+     * @param file the file contents are stored in
+     * @throws IOException the file can not be opened or is not a document store
+     */
+    public DocumentStore(File file) throws IOException {
+        this.file = file;
+        channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+            header.putInt(MAGIC).flip();
+            channel.write(header, 0);
+            return;
+        }
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+        channel.read(header, 0);
+        header.flip();
+        int magic = header.remaining() < Integer.BYTES ? 0 : header.getInt();
+        if (magic == MAGIC) {
+            scan();
+        } else if (magic == LEGACY_MAGIC) {
+            scanLegacy();
+            rewrite(positions.keySet(), nextId);
+        } else {
+            channel.close();
+            throw new IOException("Not a document store");
+        }
+    }
+
+    /**
+     * Find the position and length of every content in the file. Reading stops at a record that was
+     * not completely written, and anything after it is overwritten by the next content put.
+     *
+     * @throws IOException the file can not be read
+     */
+    private void scan() throws IOException {
+        long position = Integer.BYTES;
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER);
+        while (position + RECORD_HEADER <= size) {
+            header.clear();
+            readFully(header, position);
+            long id = header.getLong(0);
+            int length = header.getInt(Long.BYTES);
+            if (id <= 0 || length < 0 || position + RECORD_HEADER + length > size) break;
+            positions.put(id, position + RECORD_HEADER);
+            lengths.put(id, length);
+            nextId = Math.max(nextId, id + 1);
+            position += RECORD_HEADER + length;
+        }
+        channel.truncate(position);
+    }
+
+    /**
+     * Find the length of every content in a file written before contents had ids, where the id of a
+     * content is the position of its record.
+     *
+     * @throws IOException the file can not be read
+     */
+    private void scanLegacy() throws IOException {
+        long position = Integer.BYTES;
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+        while (position + Integer.BYTES <= size) {
+            header.clear();
+            readFully(header, position);
+            int length = header.getInt(0);
+            if (length < 0 || position + Integer.BYTES + length > size) break;
+            positions.put(position, position + Integer.BYTES);
+            lengths.put(position, length);
+            nextId = position + 1;
+            position += Integer.BYTES + length;
+        }
+    }
+
+    /**
+     * Give a content its id and keep it until it is written to the file by {@link #force()}.
+     *
+     * @param content the content encoded in UTF-8
+     * @return the id of the content, never 0
+     */
+    public long put(byte[] content) {
+        synchronized (pending) {
+            long id = nextId++;
+            pending.put(id, content);
+            return id;
+        }
+    }
+
+    /**
+     * Return the id the next content put will be given. Every content put afterwards has an id at least
+     * this large.
+     *
+     * @return the id of the next content
+     * @see #compact(Set, long)
+     */
+    public long nextId() {
+        synchronized (pending) {
+            return nextId;
+        }
+    }
+
+    /**
+     * Append the contents put so far to the file. A content stays in {@code pending} until it is found at
+     * its position, so it can be read at any time.
+     *
+     * @throws IOException the contents can not be written
+     */
+    private synchronized void flush() throws IOException {
+        ArrayList<Map.Entry<Long, byte[]>> contents;
+        synchronized (pending) {
+            contents = new ArrayList<>(pending.entrySet());
+        }
+        long position = channel.size();
+        for (Map.Entry<Long, byte[]> content : contents) {
+            byte[] bytes = content.getValue();
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER + bytes.length);
+            buffer.putLong(content.getKey()).putInt(bytes.length).put(bytes).flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, position + buffer.position());
+            }
+            positions.put(content.getKey(), position + RECORD_HEADER);
+            lengths.put(content.getKey(), bytes.length);
+            position += buffer.limit();
+        }
+        synchronized (pending) {
+            for (Map.Entry<Long, byte[]> content : contents) {
+                pending.remove(content.getKey());
+            }
+        }
+    }
+
+    /**
+     * Return the content with the given id, from the cache if it has been read recently. It can be called
+     * from several threads at once, as when documents are searched in parallel.
+     *
+     * @param id the id of the content
+     * @return the content
+     * @throws IOException the content can not be read
+     */
+    public String get(long id) throws IOException {
+        String content;
+        synchronized (cache) {
+            content = cache.get(id);
+        }
+        if (content == null) {
+            content = new String(read(id), StandardCharsets.UTF_8);
+            synchronized (cache) {
+                cache.put(id, content);
+            }
+        }
+        return content;
+    }
+
+    /**
+     * Read the bytes of the content with the given id from the file.
+     *
+     * @param id the id of the content
+     * @return the content encoded in UTF-8
+     * @throws IOException the content can not be read
+     */
+    private synchronized byte[] read(long id) throws IOException {
+        synchronized (pending) {
+            byte[] content = pending.get(id);
+            if (content != null) return content;
+        }
+        Long position = positions.get(id);
+        if (position == null) throw new IOException("No content " + id);
+        ByteBuffer content = ByteBuffer.allocate(lengths.get(id));
+        readFully(content, position);
+        return content.array();
+    }
+
+    /**
+     * Fill {@code buffer} with the bytes of the file starting at {@code position}.
+     *
+     * @param buffer   the buffer to be filled
+     * @param position where in the file to start reading
+     * @throws IOException the file ends before the buffer is filled
+     */
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) throw new IOException("Unexpected end");
+        }
+    }
+
+    /**
+     * Write all contents put so far and force them to disk. It is done before a snapshot that refers
+     * to them replaces the old one.
+     *
+     * @throws IOException the contents can not be written or forced to disk
+     * @see ShardedCheckpoint#write(CheckpointImage)
+     */
+    synchronized void force() throws IOException {
+        flush();
+        channel.force(false);
+    }
+
+    /**
+     * Rewrite the file without the contents that a checkpoint no longer refers to, once they take up more
+     * than half of it. Contents put after the checkpoint was encoded are kept, since a later checkpoint may
+     * refer to them; those not written yet are left in {@code pending}. It is done only after the checkpoint has been written, so that the old checkpoint never
+     * refers to a content that is gone.
+     *
+     * @param liveIds   the ids of the contents the checkpoint refers to
+     * @param watermark the id of the next content when the checkpoint was encoded
+     * @throws IOException the file can not be rewritten; it is then left as it was
+     * @see ShardedCheckpoint#compactDocuments(CheckpointImage)
+     */
+    synchronized void compact(Set<Long> liveIds, long watermark) throws IOException {
+        long liveBytes = 0;
+        for (long id : positions.keySet()) {
+            if (id >= watermark || liveIds.contains(id)) liveBytes += RECORD_HEADER + lengths.get(id);
+        }
+        long garbage = channel.size() - Integer.BYTES - liveBytes;
+        if (garbage < MIN_GARBAGE || garbage < liveBytes) return;
+        rewrite(liveIds, watermark);
+    }
+
+    /**
+     * Write the contents that are kept to a temporary file in id order, force it to disk, and move it over
+     * the file.
+     *
+     * @param liveIds   the ids of the contents that are kept
+     * @param watermark the id from which all contents are kept
+     * @throws IOException the file can not be rewritten; it is then left as it was
+     */
+    private void rewrite(Set<Long> liveIds, long watermark) throws IOException {
+        File temporary = new File(file.getPath() + TEMPORARY_EXTENSION);
+        HashMap<Long, Long> newPositions = new HashMap<>();
+        try (FileChannel output = FileChannel.open(temporary.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+            header.putInt(MAGIC).flip();
+            output.write(header);
+            for (long id : new TreeSet<>(positions.keySet())) {
+                if (id < watermark && !liveIds.contains(id)) continue;
+                ByteBuffer content = ByteBuffer.allocate(lengths.get(id));
+                readFully(content, positions.get(id));
+                ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER + content.capacity());
+                record.putLong(id).putInt(content.capacity()).put(content.array()).flip();
+                newPositions.put(id, output.position() + RECORD_HEADER);
+                while (record.hasRemaining()) {
+                    output.write(record);
+                }
+            }
+            output.force(true);
+        } catch (IOException e) {
+            temporary.delete();
+            throw e;
+        }
+        channel.close();
+        try {
+            Files.move(temporary.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            positions = newPositions;
+            lengths.keySet().retainAll(newPositions.keySet());
+        } finally {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+    }
+}
@@ -6,16 +6,29 @@ import gui.scenarios.applicant.JobSearchingScenario;
 import gui.scenarios.hiringManager.JobPostingRegisterScenario;
 import gui.scenarios.hiringManager.ViewPostingScenario;
 import gui.scenarios.recruiter.MatchInterviewScenario;
+import main.Main;
 import model.enums.JobPostingStatus;
+import model.enums.JournalRecordType;
 import model.enums.UserType;
+import model.exceptions.ApplicationAlreadyExistsException;
 import model.job.Application;
 import model.job.Interview;
 import model.job.JobPosting;
 import model.user.*;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * Class {@code EmploymentCenter} stores all the {@code User}, {@code Company} and
@@ -31,6 +44,9 @@ public class EmploymentCenter implements Serializable {
 
     private static final long serialVersionUID = -6864049380257653797L;
 
+    // The number of shards applicants are spread over by username
+    private static final int APPLICANT_SHARDS = 16;
+
     /**
      * A hash map whose key is {@code UserType} and value is an array list
      * of the corresponding users.
@@ -43,6 +59,19 @@ public class EmploymentCenter implements Serializable {
      */
     private HashMap<UserType, ArrayList<User>> users = new HashMap<>();
 
+    /**
+     * A hash map whose key is {@code UserType} and value is a hash map from
+     * username to the corresponding user. It mirrors {@code users} so that
+     * a user can be found without walking the whole list, and it is rebuilt
+     * from {@code users} after loading, so it is never written to disk.
+     *
+     * @see #users
+     * @see #getUser(String, UserType)
+     * @see #register(User, UserType)
+     * @see #buildIndexes()
+     */
+    private transient HashMap<UserType, HashMap<String, User>> userIndex = new HashMap<>();
+
     /**
      * An array list containing all the companies registered.
      *
@@ -52,6 +81,16 @@ public class EmploymentCenter implements Serializable {
      */
     private ArrayList<Company> companies = new ArrayList<>();
 
+    /**
+     * A hash map from company id to the company. It mirrors {@code companies}
+     * and is rebuilt after loading, so it is never written to disk.
+     *
+     * @see #companies
+     * @see #getCompany(String)
+     * @see #registerCompany(Company)
+     */
+    private transient HashMap<String, Company> companyIndex = new HashMap<>();
+
     /**
      * An array list containing all the job postings created.
      *
@@ -63,6 +102,75 @@ public class EmploymentCenter implements Serializable {
      */
     private ArrayList<JobPosting> jobPostings = new ArrayList<>();
 
+    /**
+     * A hash map from job id to the job posting. It mirrors {@code jobPostings}
+     * and is rebuilt after loading, so it is never written to disk.
+     *
+     * @see #jobPostings
+     * @see #getJobPosting(String)
+     * @see #getJobPostingsByIds(ArrayList)
+     * @see #addJobPosting(JobPosting)
+     */
+    private transient HashMap<String, JobPosting> jobPostingIndex = new HashMap<>();
+
+    /**
+     * A hash map whose key is {@code JobPostingStatus} and value is the set of job
+     * postings currently in that status, in the order they entered it. Postings are
+     * moved between sets when their status changes, so each status costs only what
+     * it contains. It is rebuilt after loading, so it is never written to disk.
+     *
+     * @see JobPostingStatus
+     * @see #getOpenJobPostings()
+     * @see #updateOpenJobPostings()
+     * @see #updateJobPostingStatus(JobPosting, JobPostingStatus)
+     */
+    private transient HashMap<JobPostingStatus, LinkedHashSet<JobPosting>> jobPostingsByStatus = new HashMap<>();
+
+    /**
+     * Open job postings ordered by close date, earliest first. Only the postings at the
+     * head whose close date has passed are looked at when updating, so the cost does not
+     * grow with the number of open postings. Postings that stopped being open in another
+     * way stay in the queue and are skipped when they reach the head. Postings whose close
+     * date can not be parsed never close and are not queued. It is rebuilt after loading,
+     * so it is never written to disk.
+     *
+     * @see JobPosting#getCloseDate()
+     * @see #updateOpenJobPostings()
+     * @see #scheduleClose(JobPosting)
+     */
+    private transient PriorityQueue<JobPosting> closeDateQueue =
+            new PriorityQueue<>(Comparator.comparing(JobPosting::getCloseDate));
+
+    /**
+     * The sequence number of the last {@code JournalRecord} made. It is saved with the
+     * checkpoint, so that records already folded into the checkpoint are not made again
+     * when loading.
+     *
+     * @see JournalRecord
+     * @see #record(JournalRecord)
+     * @see JournalReplayer
+     */
+    private long journalSequence;
+
+    /**
+     * Records of changes made since the last save, waiting to be appended to the journal.
+     *
+     * @see #record(JournalRecord)
+     * @see #takePendingRecords()
+     * @see #restorePendingRecords(List)
+     */
+    private transient ArrayList<JournalRecord> pendingRecords = new ArrayList<>();
+
+    /**
+     * The keys of the shards of the checkpoint that have changed since the last checkpoint was encoded, or
+     * {@code null} if every shard may have changed. They are marked as changes are made or made again.
+     *
+     * @see #markChanged(JournalRecord)
+     * @see #takeChangedShards()
+     * @see ShardedCheckpoint#encode(EmploymentCenter)
+     */
+    private transient HashSet<String> changedShards = new HashSet<>();
+
 
     /**
      * Create a new {@code EmploymentCenter}.
@@ -74,6 +182,240 @@ public class EmploymentCenter implements Serializable {
         users.put(UserType.RECRUITER, new ArrayList<>());
         users.put(UserType.HIRING_MANAGER, new ArrayList<>());
         users.put(UserType.INTERVIEWER, new ArrayList<>());
+        buildIndexes();
+    }
+
+    /**
+     * Create an {@code EmploymentCenter} read from a single snapshot written by version 1 or 2, then build
+     * the indexes that are not stored in it.
+     *
+     * @param input the snapshot this {@code EmploymentCenter} is read from
+     * @throws IOException the snapshot can not be read
+     * @see ShardedCheckpoint#read()
+     */
+    EmploymentCenter(SnapshotInput input) throws IOException {
+        journalSequence = input.readLong();
+        companies = input.readList();
+        int size = input.readInt();
+        for (int i = 0; i < size; i++) {
+            users.put(input.readEnum(UserType.class), input.readList());
+        }
+        jobPostings = input.readList();
+        buildIndexes();
+    }
+
+    /**
+     * Create an {@code EmploymentCenter} from the shards of a checkpoint. The lists are put back in their
+     * order, the indexes are built, and every application is given back to its applicant.
+     *
+     * @param journalSequence the sequence number of the last record folded into the checkpoint
+     * @param shards          the shards read
+     * @throws IOException the shards do not fit together
+     * @see ShardedCheckpoint#read()
+     * @see #split(Set)
+     */
+    EmploymentCenter(long journalSequence, ArrayList<Shard> shards) throws IOException {
+        this();
+        this.journalSequence = journalSequence;
+        TreeMap<Integer, Company> companyOrder = new TreeMap<>();
+        HashMap<UserType, TreeMap<Integer, User>> userOrder = new HashMap<>();
+        TreeMap<Integer, JobPosting> jobPostingOrder = new TreeMap<>();
+        for (Shard shard : shards) {
+            if (shard.getCompany() != null) {
+                place(companyOrder, shard.getCompanyPosition(), shard.getCompany());
+            }
+            for (UserType userType : shard.getUsers().keySet()) {
+                ArrayList<User> shardUsers = shard.getUsers().get(userType);
+                ArrayList<Integer> positions = shard.getUserPositions().get(userType);
+                userOrder.putIfAbsent(userType, new TreeMap<>());
+                for (int i = 0; i < shardUsers.size(); i++) {
+                    place(userOrder.get(userType), positions.get(i), shardUsers.get(i));
+                }
+            }
+            for (int i = 0; i < shard.getJobPostings().size(); i++) {
+                place(jobPostingOrder, shard.getJobPostingPositions().get(i), shard.getJobPostings().get(i));
+            }
+        }
+        companies.addAll(companyOrder.values());
+        for (UserType userType : userOrder.keySet()) {
+            users.putIfAbsent(userType, new ArrayList<>());
+            users.get(userType).addAll(userOrder.get(userType).values());
+        }
+        jobPostings.addAll(jobPostingOrder.values());
+        buildIndexes();
+        for (Shard shard : shards) {
+            for (Application application : shard.getApplications()) {
+                Applicant applicant = getApplicant(application.getApplicantId());
+                if (applicant == null) throw new IOException("Corrupted snapshot");
+                try {
+                    applicant.addApplication(application.getJobPostingId(), application);
+                } catch (ApplicationAlreadyExistsException e) {
+                    throw new IOException("Corrupted snapshot");
+                }
+            }
+        }
+    }
+
+    /**
+     * Put an item read from a shard at its position.
+     *
+     * @param order    the items read so far by position
+     * @param position the position of the item
+     * @param item     the item
+     * @param <T>      the type of the item
+     * @throws IOException another item was already read at the same position
+     */
+    private static <T> void place(TreeMap<Integer, T> order, int position, T item) throws IOException {
+        if (order.put(position, item) != null) throw new IOException("Corrupted snapshot");
+    }
+
+    /**
+     * Split this {@code EmploymentCenter} into the shards of a checkpoint. Applicants are spread over
+     * {@code APPLICANT_SHARDS} shards by username; every company has a shard of its own with its employees,
+     * its job postings and all applications to them. An employee or job posting whose company is not registered
+     * gets a shard of its own without a company, and an application whose job posting can not be found stays
+     * with its applicant.
+     * <p>
+     * Only the shards whose keys are given are built. The lists are still walked to find their members, but
+     * nothing of the other shards is copied or encoded.
+     *
+     * @param keys the keys of the shards to be built, or {@code null} for all shards
+     * @return the shards built, by key
+     * @see ShardedCheckpoint#encode(EmploymentCenter)
+     * @see #EmploymentCenter(long, ArrayList)
+     */
+    LinkedHashMap<String, Shard> split(Set<String> keys) {
+        LinkedHashMap<String, Shard> shards = new LinkedHashMap<>();
+        HashSet<String> companyKeys = new HashSet<>();
+        for (int i = 0; i < companies.size(); i++) {
+            String key = getCompanyShardKey(companies.get(i).getId());
+            if (!companyKeys.add(key)) key = key + "#" + i;
+            Shard shard = getShard(key, keys, shards);
+            if (shard != null) shard.setCompany(companies.get(i), i);
+        }
+        for (UserType userType : users.keySet()) {
+            ArrayList<User> list = users.get(userType);
+            for (int i = 0; i < list.size(); i++) {
+                Shard shard = getShard(getShardKey(list.get(i)), keys, shards);
+                if (shard != null) shard.addUser(userType, list.get(i), i);
+            }
+        }
+        for (int i = 0; i < jobPostings.size(); i++) {
+            Shard shard = getShard(getCompanyShardKey(jobPostings.get(i).getCompanyId()), keys, shards);
+            if (shard != null) shard.addJobPosting(jobPostings.get(i), i);
+        }
+        for (User user : users.get(UserType.APPLICANT)) {
+            if (!(user instanceof Applicant)) continue;
+            for (Application application : ((Applicant) user).getApplications()) {
+                JobPosting jobPosting = jobPostingIndex.get(application.getJobPostingId());
+                String key = jobPosting == null ? getShardKey(user) : getCompanyShardKey(jobPosting.getCompanyId());
+                Shard shard = getShard(key, keys, shards);
+                if (shard != null) shard.addApplication(application);
+            }
+        }
+        return shards;
+    }
+
+    /**
+     * Return the shard with the given key, creating it if it is one of the shards being built.
+     *
+     * @param key    the key of the shard
+     * @param keys   the keys of the shards being built, or {@code null} for all shards
+     * @param shards the shards built so far, by key
+     * @return the shard, or {@code null} if it is not being built
+     * @see #split(Set)
+     */
+    private static Shard getShard(String key, Set<String> keys, LinkedHashMap<String, Shard> shards) {
+        if (keys != null && !keys.contains(key)) return null;
+        return shards.computeIfAbsent(key, k -> new Shard());
+    }
+
+    /**
+     * Return the key of the shard of a company.
+     *
+     * @param companyId the id of the company
+     * @return the key of the shard
+     */
+    private static String getCompanyShardKey(String companyId) {
+        return "company:" + companyId;
+    }
+
+    /**
+     * Return the key of the shard a user is in: the shard of his/her company for an employee, or one of the
+     * shards of applicants.
+     *
+     * @param user the user
+     * @return the key of the shard
+     */
+    private static String getShardKey(User user) {
+        if (user instanceof Employee) return getCompanyShardKey(((Employee) user).getCompanyId());
+        return "applicants:" + Math.floorMod(user.getUsername().hashCode(), APPLICANT_SHARDS);
+    }
+
+    /**
+     * Restore the fields written by default serialization, then rebuild the
+     * indexes that are not stored on disk.
+     *
+     * @param input the stream this {@code EmploymentCenter} is read from
+     * @throws IOException            the stream can not be read
+     * @throws ClassNotFoundException a class in the stream can not be found
+     * @see main.Main
+     */
+    private void readObject(ObjectInputStream input) throws IOException, ClassNotFoundException {
+        input.defaultReadObject();
+        pendingRecords = new ArrayList<>();
+        changedShards = new HashSet<>();
+        buildIndexes();
+    }
+
+    /**
+     * Build {@code userIndex}, {@code companyIndex}, {@code jobPostingIndex},
+     * {@code jobPostingsByStatus} and {@code closeDateQueue} from the lists they mirror.
+     * If a key appears more than once in a list, the first one is kept, same as a linear
+     * search would find.
+     *
+     * @see #EmploymentCenter()
+     * @see #EmploymentCenter(SnapshotInput)
+     * @see #EmploymentCenter(long, ArrayList)
+     * @see #readObject(ObjectInputStream)
+     */
+    private void buildIndexes() {
+        userIndex = new HashMap<>();
+        for (UserType userType : users.keySet()) {
+            HashMap<String, User> usersByName = new HashMap<>();
+            for (User user : users.get(userType)) {
+                usersByName.putIfAbsent(user.getUsername(), user);
+            }
+            userIndex.put(userType, usersByName);
+        }
+        companyIndex = new HashMap<>();
+        for (Company company : companies) {
+            companyIndex.putIfAbsent(company.getId(), company);
+        }
+        jobPostingIndex = new HashMap<>();
+        jobPostingsByStatus = new HashMap<>();
+        for (JobPostingStatus status : JobPostingStatus.values()) {
+            jobPostingsByStatus.put(status, new LinkedHashSet<>());
+        }
+        closeDateQueue = new PriorityQueue<>(Comparator.comparing(JobPosting::getCloseDate));
+        for (JobPosting jobPosting : jobPostings) {
+            jobPostingIndex.putIfAbsent(jobPosting.getJobId(), jobPosting);
+            jobPostingsByStatus.get(jobPosting.getStatus()).add(jobPosting);
+            scheduleClose(jobPosting);
+        }
+    }
+
+    /**
+     * Add a job posting to {@code closeDateQueue} if it is open and has a valid close date.
+     *
+     * @param jobPosting the {@code JobPosting} to be scheduled
+     * @see #buildIndexes()
+     * @see #addJobPosting(JobPosting)
+     */
+    private void scheduleClose(JobPosting jobPosting) {
+        if (jobPosting.isOpen() && jobPosting.getCloseDate() != null) {
+            closeDateQueue.add(jobPosting);
+        }
     }
 
     /**
@@ -85,6 +427,8 @@ public class EmploymentCenter implements Serializable {
      */
     void register(User user, UserType userType) {
         this.users.get(userType).add(user);
+        this.userIndex.get(userType).putIfAbsent(user.getUsername(), user);
+        markChanged(getShardKey(user));
     }
 
     /**
@@ -95,6 +439,8 @@ public class EmploymentCenter implements Serializable {
      */
     void registerCompany(Company company) {
         this.companies.add(company);
+        this.companyIndex.putIfAbsent(company.getId(), company);
+        markChanged(getCompanyShardKey(company.getId()));
     }
 
     /**
@@ -108,12 +454,11 @@ public class EmploymentCenter implements Serializable {
      * @see LoginFrame
      */
     public User getUser(String userName, UserType userType) {
-        for (User user : users.get(userType)) {
-            if (user.getUsername().equals(userName)) {
-                return user;
-            }
+        User user = userIndex.get(userType).get(userName);
+        if (user == null) {
+            return new NullUser();
         }
-        return new NullUser();
+        return user;
     }
 
     /**
@@ -145,12 +490,7 @@ public class EmploymentCenter implements Serializable {
      * @see main.Main#main(String[])
      */
     public Company getCompany(String companyId) {
-        for (Company company : companies) {
-            if (company.getId().equals(companyId)) {
-                return company;
-            }
-        }
-        return null;
+        return companyIndex.get(companyId);
     }
 
     /**
@@ -193,13 +533,7 @@ public class EmploymentCenter implements Serializable {
      * @see JobSearchingScenario
      */
     public ArrayList<JobPosting> getOpenJobPostings() {
-        ArrayList<JobPosting> openJobPostings = new ArrayList<>();
-        for (JobPosting jobPosting : this.jobPostings) {
-            if (jobPosting.getStatus().equals(JobPostingStatus.OPEN)) {
-                openJobPostings.add(jobPosting);
-            }
-        }
-        return openJobPostings;
+        return new ArrayList<>(jobPostingsByStatus.get(JobPostingStatus.OPEN));
     }
 
     /**
@@ -210,9 +544,9 @@ public class EmploymentCenter implements Serializable {
      * @see ViewPostingScenario
      */
     public ArrayList<JobPosting> getJobPostingsByIds(ArrayList<String> ids) {
-        ArrayList<JobPosting> listJobPostings = new ArrayList<>();
+        ArrayList<JobPosting> listJobPostings = new ArrayList<>(ids.size());
         for (String id : ids) {
-            listJobPostings.add(getJobPosting(id));
+            listJobPostings.add(jobPostingIndex.get(id));
         }
         return listJobPostings;
     }
@@ -227,12 +561,7 @@ public class EmploymentCenter implements Serializable {
      * @see EmploymentCenter#getJobPostingsByIds(ArrayList)
      */
     public JobPosting getJobPosting(String id) {
-        for (JobPosting jobPosting : jobPostings) {
-            if (jobPosting.getJobId().equals(id)) {
-                return jobPosting;
-            }
-        }
-        return null;
+        return jobPostingIndex.get(id);
     }
 
     /**
@@ -243,18 +572,245 @@ public class EmploymentCenter implements Serializable {
      */
     public void addJobPosting(JobPosting jobPosting) {
         this.jobPostings.add(jobPosting);
+        this.jobPostingIndex.putIfAbsent(jobPosting.getJobId(), jobPosting);
+        this.jobPostingsByStatus.get(jobPosting.getStatus()).add(jobPosting);
+        scheduleClose(jobPosting);
+        markChanged(getCompanyShardKey(jobPosting.getCompanyId()));
     }
 
     /**
-     * Update all open job postings stored here by calling startProcessing() on it
+     * Add a new job posting, register it with its company and give it to the recruiter
+     * who will manage it.
      *
+     * @param jobPosting the new {@code JobPosting}
+     * @param recruiter  the recruiter who will manage the job posting
+     * @see JobPostingRegisterScenario
+     * @see JournalReplayer
+     */
+    public void postJobPosting(JobPosting jobPosting, Employee recruiter) {
+        addJobPosting(jobPosting);
+        getCompany(recruiter.getCompanyId()).addJobPostingId(jobPosting.getJobId());
+        recruiter.addFile(jobPosting);
+        recruiter.receiveMessage("You got a new Job Posting to manage!");
+    }
+
+    /**
+     * Move a job posting from the set of its previous status to the set of its current status.
+     *
+     * @param jobPosting     the {@code JobPosting} whose status has changed
+     * @param previousStatus the status the job posting had before the change
+     * @see JobPosting#endJobPosting(EmploymentCenter)
+     * @see #updateOpenJobPostings()
+     */
+    public void updateJobPostingStatus(JobPosting jobPosting, JobPostingStatus previousStatus) {
+        if (jobPostingsByStatus.get(previousStatus).remove(jobPosting)) {
+            jobPostingsByStatus.get(jobPosting.getStatus()).add(jobPosting);
+        }
+        markChanged(getCompanyShardKey(jobPosting.getCompanyId()));
+    }
+
+    /**
+     * Call startProcessing() on every open job posting whose close date is before
+     * {@code Main.getCurrentDate()}. Postings are taken from the head of {@code closeDateQueue}
+     * until one that should not close is found.
+     *
+     * @return true if and only if any job posting has started processing
      * @see LoginFrame
+     * @see Main#getCurrentDate()
      */
-    public void updateOpenJobPostings() {
-        ArrayList<JobPosting> jobPostings = this.getOpenJobPostings();
-        for (JobPosting jobPosting : jobPostings) {
-            jobPosting.startProcessing();
+    public boolean updateOpenJobPostings() {
+        boolean updated = false;
+        while (!closeDateQueue.isEmpty() && closeDateQueue.peek().shouldClose()) {
+            JobPosting jobPosting = closeDateQueue.poll();
+            if (jobPosting.isOpen()) {
+                jobPosting.startProcessing();
+                updateJobPostingStatus(jobPosting, JobPostingStatus.OPEN);
+                updated = true;
+            }
         }
+        return updated;
+    }
+
+    /**
+     * Give {@code record} the next sequence number and keep it until the next save.
+     * This is called after a change is successfully made.
+     *
+     * @param record the record of the change
+     * @see gui.general.Scenario
+     * @see main.Main#saveSystem()
+     */
+    public void record(JournalRecord record) {
+        record.setSequence(++journalSequence);
+        pendingRecords.add(record);
+        markChanged(record);
+    }
+
+    /**
+     * Mark the shards changed by the change a record describes, so that only they are encoded for the next
+     * checkpoint. Changes to the users, companies and job postings lists, and job postings closing, are marked
+     * where they are made. A record of a type not known here marks every shard.
+     *
+     * @param record the record of a change made or made again
+     * @see #record(JournalRecord)
+     * @see JournalReplayer
+     */
+    void markChanged(JournalRecord record) {
+        JournalRecordType type = record.getType();
+        if (type.equals(JournalRecordType.REGISTER_USER) || type.equals(JournalRecordType.POST_JOB_POSTING) ||
+                type.equals(JournalRecordType.CLOSE_JOB_POSTINGS)) {
+            return;
+        } else if (type.equals(JournalRecordType.READ_MESSAGES)) {
+            markUserChanged(record.getArg(0), UserType.valueOf(record.getArg(1)));
+        } else if (type.equals(JournalRecordType.ADD_DOCUMENT)) {
+            markUserChanged(record.getArg(0), UserType.APPLICANT);
+        } else if (type.equals(JournalRecordType.UPDATE_DOCUMENTS)) {
+            markUserChanged(record.getArg(0), UserType.APPLICANT);
+            Applicant applicant = getApplicant(record.getArg(0));
+            if (applicant != null) {
+                for (Application application : applicant.getApplications()) {
+                    markJobPostingChanged(application.getJobPostingId(), false);
+                }
+            }
+        } else if (type.equals(JournalRecordType.ATTACH_DOCUMENT) ||
+                type.equals(JournalRecordType.REMOVE_DOCUMENT) ||
+                type.equals(JournalRecordType.CREATE_APPLICATION) ||
+                type.equals(JournalRecordType.DELETE_APPLICATION) ||
+                type.equals(JournalRecordType.APPLY) ||
+                type.equals(JournalRecordType.CANCEL_APPLICATION) ||
+                type.equals(JournalRecordType.MATCH_INTERVIEW) ||
+                type.equals(JournalRecordType.INTERVIEW_RESULT)) {
+            markUserChanged(record.getArg(0), UserType.APPLICANT);
+            if (record.getArg(1) != null) markJobPostingChanged(record.getArg(1), false);
+        } else if (type.equals(JournalRecordType.HIRE)) {
+            markUserChanged(record.getArg(0), UserType.APPLICANT);
+            markJobPostingChanged(record.getArg(1), true);
+        } else if (type.equals(JournalRecordType.END_JOB_POSTING) ||
+                type.equals(JournalRecordType.ADD_INTERVIEW_ROUND) ||
+                type.equals(JournalRecordType.NEXT_ROUND)) {
+            markJobPostingChanged(record.getArg(0), true);
+        } else if (type.equals(JournalRecordType.MATCH_ALL_INTERVIEWS)) {
+            markJobPostingChanged(record.getArg(0), false);
+            for (int i = 2; i < record.getArgCount(); i += 2) {
+                markUserChanged(record.getArg(i), UserType.APPLICANT);
+            }
+        } else if (type.equals(JournalRecordType.INTERVIEW_RESULTS)) {
+            for (int i = 2; i < record.getArgCount(); i += 3) {
+                markUserChanged(record.getArg(i), UserType.APPLICANT);
+                markJobPostingChanged(record.getArg(i + 1), false);
+            }
+        } else {
+            changedShards = null;
+        }
+    }
+
+    /**
+     * Mark the shard a user is in as changed.
+     *
+     * @param username the username of the user
+     * @param userType the type of the user
+     */
+    private void markUserChanged(String username, UserType userType) {
+        User user = userIndex.get(userType).get(username);
+        if (user != null) markChanged(getShardKey(user));
+    }
+
+    /**
+     * Mark the shard of the company of a job posting as changed, and if asked, the shards of all applicants
+     * who have applied to it, since they may have been sent a message.
+     *
+     * @param jobId           the id of the job posting
+     * @param withApplicants  true if and only if the shards of the applicants are marked too
+     */
+    private void markJobPostingChanged(String jobId, boolean withApplicants) {
+        JobPosting jobPosting = jobPostingIndex.get(jobId);
+        if (jobPosting == null) return;
+        markChanged(getCompanyShardKey(jobPosting.getCompanyId()));
+        if (!withApplicants) return;
+        for (Application application : jobPosting.getApplications()) {
+            markUserChanged(application.getApplicantId(), UserType.APPLICANT);
+        }
+    }
+
+    /**
+     * Mark a shard as changed.
+     *
+     * @param key the key of the shard
+     */
+    private void markChanged(String key) {
+        if (changedShards != null) changedShards.add(key);
+    }
+
+    /**
+     * Return the keys of the shards changed since the last time they were taken, and start marking anew,
+     * when a checkpoint is encoded.
+     *
+     * @return the keys of the shards changed, or {@code null} if every shard may have changed
+     * @see ShardedCheckpoint#encode(EmploymentCenter)
+     */
+    HashSet<String> takeChangedShards() {
+        HashSet<String> keys = changedShards;
+        changedShards = new HashSet<>();
+        return keys;
+    }
+
+    /**
+     * Mark again the shards of a checkpoint that could not be written, so that they are encoded for the
+     * next checkpoint.
+     *
+     * @param image the checkpoint that could not be written
+     * @see main.Main#saveInBackground()
+     */
+    public void restoreChangedShards(CheckpointImage image) {
+        restoreChangedShards(image.getChangedKeys());
+    }
+
+    /**
+     * Mark again shards taken by {@link #takeChangedShards()} that could not be encoded or written.
+     *
+     * @param keys the keys of the shards, or {@code null} for all shards
+     * @see ShardedCheckpoint#encode(EmploymentCenter)
+     */
+    void restoreChangedShards(Set<String> keys) {
+        if (changedShards == null || keys == null) {
+            changedShards = null;
+        } else {
+            changedShards.addAll(keys);
+        }
+    }
+
+    public int getPendingCount() {
+        return pendingRecords.size();
+    }
+
+    /**
+     * Return all pending records and stop keeping them, when they are handed over to be saved.
+     *
+     * @return the records of changes made since the last save, in order
+     * @see main.Main#saveInBackground()
+     */
+    public ArrayList<JournalRecord> takePendingRecords() {
+        ArrayList<JournalRecord> records = pendingRecords;
+        pendingRecords = new ArrayList<>();
+        return records;
+    }
+
+    /**
+     * Keep again records taken by {@link #takePendingRecords()} that could not be saved, before any
+     * record made since, so that they are saved in order on the next save.
+     *
+     * @param records the records that could not be saved
+     * @see main.Main#saveInBackground()
+     */
+    public void restorePendingRecords(List<JournalRecord> records) {
+        pendingRecords.addAll(0, records);
+    }
+
+    long getJournalSequence() {
+        return journalSequence;
+    }
+
+    void setJournalSequence(long journalSequence) {
+        this.journalSequence = journalSequence;
     }
 
 }
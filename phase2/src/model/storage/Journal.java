@@ -0,0 +1,147 @@
+package model.storage;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Class {@code Journal} is an append-only file of {@code JournalRecord}s. Each record is
+ * written with its length and checksum, so that a record cut off by a crash is found when
+ * reading, and everything before it is still read.
+ * <p>
+ * Records are appended on the thread that saves in the background, while the number of
+ * records is checked on the thread that makes changes. Every method that touches the file
+ * is synchronized, but the number of records is read without the lock, so that checking
+ * it never waits for records being forced to disk.
+ *
+ * @author group 0120 of CSC207 summer 2019
+ * @see JournalRecord
+ * @see main.Main
+ * @since 2019-08-10
+ */
+public class Journal {
+
+    /**
+     * The file where records are stored.
+     *
+     * @see #Journal(File)
+     */
+    private File file;
+
+    /**
+     * The length of the file up to the end of the last complete record. Anything after it
+     * is cut off before new records are appended.
+     *
+     * @see #readAll()
+     * @see #append(List)
+     */
+    private long validLength;
+
+    /**
+     * The number of complete records in the file.
+     *
+     * @see #size()
+     */
+    private volatile int size;
+
+    /**
+     * Create a new {@code Journal} stored in the given file. The file does not need to exist.
+     *
+     * @param file the file where records are stored
+     */
+    public Journal(File file) {
+        this.file = file;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Read all complete records from the file. Reading stops at the first record that
+     * was not completely written.
+     *
+     * @return all complete records in the order they were appended
+     * @throws IOException the file exists but can not be read
+     */
+    public synchronized ArrayList<JournalRecord> readAll() throws IOException {
+        ArrayList<JournalRecord> records = new ArrayList<>();
+        validLength = 0;
+        size = 0;
+        if (!file.exists()) return records;
+        long fileLength = file.length();
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            while (validLength + Integer.BYTES + Long.BYTES <= fileLength) {
+                int length = input.readInt();
+                long checksum = input.readLong();
+                long end = validLength + Integer.BYTES + Long.BYTES + length;
+                if (length < 0 || end > fileLength) break;
+                byte[] payload = new byte[length];
+                input.readFully(payload);
+                if (checksum(payload) != checksum) break;
+                records.add(JournalRecord.read(new DataInputStream(new ByteArrayInputStream(payload))));
+                validLength = end;
+                size++;
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Append records to the end of the file and force them to disk.
+     *
+     * @param records the records to be appended
+     * @throws IOException the records can not be written
+     */
+    public synchronized void append(List<JournalRecord> records) throws IOException {
+        if (records.isEmpty()) return;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        for (JournalRecord record : records) {
+            ByteArrayOutputStream payload = new ByteArrayOutputStream();
+            record.write(new DataOutputStream(payload));
+            output.writeInt(payload.size());
+            output.writeLong(checksum(payload.toByteArray()));
+            payload.writeTo(output);
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.truncate(validLength);
+            channel.position(validLength);
+            channel.write(ByteBuffer.wrap(bytes.toByteArray()));
+            channel.force(true);
+            validLength = channel.position();
+        }
+        size += records.size();
+    }
+
+    /**
+     * Remove all records from the file. This is done after all of them have been
+     * folded into a checkpoint.
+     *
+     * @throws IOException the file can not be cleared
+     */
+    public synchronized void clear() throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.truncate(0);
+            channel.force(true);
+        }
+        validLength = 0;
+        size = 0;
+    }
+
+    /**
+     * Return the checksum of a record.
+     *
+     * @param payload the bytes of a record
+     * @return the checksum of {@code payload}
+     */
+    private long checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return crc.getValue();
+    }
+}
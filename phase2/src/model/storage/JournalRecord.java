@@ -0,0 +1,214 @@
+package model.storage;
+
+import main.Main;
+import model.enums.JournalRecordType;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Class {@code JournalRecord} describes one change made to the data stored in
+ * {@code EmploymentCenter}, so that the change can be written to the {@code Journal}
+ * and made again when the system is loaded.
+ * <p>
+ * Entities are referred to by their ids (usernames, job ids, round names, document ids), never by
+ * object, so that a record stays small no matter how large the data grows.
+ *
+ * @author group 0120 of CSC207 summer 2019
+ * @see JournalRecordType
+ * @see Journal
+ * @see JournalReplayer
+ * @since 2019-08-10
+ */
+public class JournalRecord {
+
+    /**
+     * The position of this record in the journal, given by {@code EmploymentCenter}
+     * when the record is made.
+     *
+     * @see EmploymentCenter#record(JournalRecord)
+     * @see #getSequence()
+     */
+    private long sequence;
+
+    /**
+     * The type of the change.
+     *
+     * @see JournalRecordType
+     * @see #getType()
+     */
+    private JournalRecordType type;
+
+    /**
+     * The date when the change was made. The change is made again on this date
+     * so that everything depending on {@code Main.getCurrentDate()} turns out the same.
+     *
+     * @see Main#getCurrentDate()
+     * @see #getDate()
+     */
+    private LocalDate date;
+
+    /**
+     * The ids and values needed to make the change again, in an order fixed by {@code type}.
+     *
+     * @see #getArg(int)
+     */
+    private ArrayList<String> args;
+
+    /**
+     * The information map used to make the change, if there is one.
+     *
+     * @see #getDetails()
+     */
+    private HashMap<String, String> details;
+
+    /**
+     * Create a new record of a change made today.
+     *
+     * @param type the type of the change
+     * @param args the ids and values needed to make the change again
+     */
+    public JournalRecord(JournalRecordType type, String... args) {
+        this(type, new HashMap<>(), args);
+    }
+
+    /**
+     * Create a new record of a change made today with an information map.
+     *
+     * @param type    the type of the change
+     * @param details the information map used to make the change
+     * @param args    the ids and values needed to make the change again
+     */
+    public JournalRecord(JournalRecordType type, HashMap<String, String> details, String... args) {
+        this.type = type;
+        this.date = Main.getCurrentDate();
+        this.args = new ArrayList<>(Arrays.asList(args));
+        this.details = new HashMap<>(details);
+    }
+
+    /**
+     * Create a record read from the journal.
+     *
+     * @see #read(DataInput)
+     */
+    private JournalRecord() {
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public JournalRecordType getType() {
+        return type;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public String getArg(int index) {
+        return args.get(index);
+    }
+
+    public int getArgCount() {
+        return args.size();
+    }
+
+    public HashMap<String, String> getDetails() {
+        return details;
+    }
+
+    /**
+     * Write this record to {@code output}.
+     *
+     * @param output where this record is written to
+     * @throws IOException the record can not be written
+     * @see #read(DataInput)
+     */
+    void write(DataOutput output) throws IOException {
+        output.writeLong(sequence);
+        writeString(output, type.name());
+        writeString(output, date.toString());
+        output.writeInt(args.size());
+        for (String arg : args) {
+            writeString(output, arg);
+        }
+        output.writeInt(details.size());
+        for (String key : details.keySet()) {
+            writeString(output, key);
+            writeString(output, details.get(key));
+        }
+    }
+
+    /**
+     * Read a record written by {@code write} from {@code input}.
+     *
+     * @param input where the record is read from
+     * @return the record read
+     * @throws IOException the record can not be read
+     * @see #write(DataOutput)
+     */
+    static JournalRecord read(DataInput input) throws IOException {
+        JournalRecord record = new JournalRecord();
+        record.sequence = input.readLong();
+        try {
+            record.type = JournalRecordType.valueOf(readString(input));
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e);
+        }
+        record.date = LocalDate.parse(readString(input));
+        int argCount = input.readInt();
+        record.args = new ArrayList<>(argCount);
+        for (int i = 0; i < argCount; i++) {
+            record.args.add(readString(input));
+        }
+        int detailCount = input.readInt();
+        record.details = new HashMap<>();
+        for (int i = 0; i < detailCount; i++) {
+            record.details.put(readString(input), readString(input));
+        }
+        return record;
+    }
+
+    /**
+     * Write a string that may be {@code null} or longer than {@code DataOutput.writeUTF} allows.
+     *
+     * @param output where the string is written to
+     * @param string the string to be written
+     * @throws IOException the string can not be written
+     */
+    private static void writeString(DataOutput output, String string) throws IOException {
+        if (string == null) {
+            output.writeInt(-1);
+        } else {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+    }
+
+    /**
+     * Read a string written by {@code writeString}.
+     *
+     * @param input where the string is read from
+     * @return the string read
+     * @throws IOException the string can not be read
+     */
+    private static String readString(DataInput input) throws IOException {
+        int length = input.readInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,198 @@
+package model.storage;
+
+import main.Main;
+import model.enums.InterviewStatus;
+import model.enums.JournalRecordType;
+import model.enums.UserType;
+import model.exceptions.CannotReplayJournalException;
+import model.job.*;
+import model.user.Applicant;
+import model.user.Employee;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Class {@code JournalReplayer} makes the changes described by {@code JournalRecord}s
+ * again on an {@code EmploymentCenter} loaded from a checkpoint.
+ * <p>
+ * Every change is made through the same methods that made it the first time, on the
+ * date it was first made, so that the result is the same.
+ *
+ * @author group 0120 of CSC207 summer 2019
+ * @see JournalRecord
+ * @see Journal
+ * @see main.Main
+ * @since 2019-08-10
+ */
+public class JournalReplayer {
+
+    /**
+     * The {@code EmploymentCenter} the changes are made on.
+     *
+     * @see #JournalReplayer(EmploymentCenter)
+     */
+    private EmploymentCenter employmentCenter;
+
+    /**
+     * Create a new {@code JournalReplayer}.
+     *
+     * @param employmentCenter the {@code EmploymentCenter} loaded from the checkpoint
+     */
+    public JournalReplayer(EmploymentCenter employmentCenter) {
+        this.employmentCenter = employmentCenter;
+    }
+
+    /**
+     * Make the changes in {@code records} that are not in the checkpoint yet, in order.
+     * The current date is restored afterwards.
+     *
+     * @param records the records read from the journal
+     * @throws CannotReplayJournalException a change can not be made again; the changes before it are kept
+     */
+    public void replay(List<JournalRecord> records) throws CannotReplayJournalException {
+        LocalDate today = Main.getCurrentDate();
+        try {
+            for (JournalRecord record : records) {
+                if (record.getSequence() <= employmentCenter.getJournalSequence()) continue;
+                Main.setCurrentDate(record.getDate());
+                try {
+                    replay(record);
+                    employmentCenter.markChanged(record);
+                } catch (Exception e) {
+                    throw new CannotReplayJournalException(record.getSequence());
+                }
+                employmentCenter.setJournalSequence(record.getSequence());
+            }
+        } finally {
+            Main.setCurrentDate(today);
+        }
+    }
+
+    /**
+     * Make the change described by a single record.
+     *
+     * @param record the record of the change
+     * @throws Exception the change can not be made again
+     */
+    private void replay(JournalRecord record) throws Exception {
+        JournalRecordType type = record.getType();
+        if (type.equals(JournalRecordType.REGISTER_USER)) {
+            new UserFactory(employmentCenter).createUser(record.getDetails(), UserType.valueOf(record.getArg(0)));
+        } else if (type.equals(JournalRecordType.READ_MESSAGES)) {
+            employmentCenter.getUser(record.getArg(0), UserType.valueOf(record.getArg(1))).getMessage();
+        } else if (type.equals(JournalRecordType.POST_JOB_POSTING)) {
+            employmentCenter.postJobPosting(new JobPosting(record.getDetails()),
+                    employmentCenter.getEmployee(record.getArg(0), UserType.RECRUITER));
+        } else if (type.equals(JournalRecordType.CLOSE_JOB_POSTINGS)) {
+            employmentCenter.updateOpenJobPostings();
+        } else if (type.equals(JournalRecordType.END_JOB_POSTING)) {
+            JobPosting jobPosting = employmentCenter.getJobPosting(record.getArg(0));
+            jobPosting.endJobPosting(employmentCenter);
+            jobPosting.notifyAllFailedApplicant(employmentCenter);
+        } else if (type.equals(JournalRecordType.ADD_DOCUMENT)) {
+            String documentId = record.getArgCount() > 3 ? record.getArg(3) : UUID.randomUUID().toString();
+            getApplicant(record).getDocumentManager().addDocument(
+                    new Document(documentId, record.getArg(1), record.getArg(2)));
+        } else if (type.equals(JournalRecordType.ATTACH_DOCUMENT)) {
+            Document document = getDocument(getApplicant(record).getDocumentManager(), record.getArg(2));
+            getApplication(record).getDocumentManager().addDocument(document);
+        } else if (type.equals(JournalRecordType.REMOVE_DOCUMENT)) {
+            DocumentManager manager = record.getArg(1) == null ? getApplicant(record).getDocumentManager() :
+                    getApplication(record).getDocumentManager();
+            manager.removeDocument(getDocument(manager, record.getArg(2)));
+        } else if (type.equals(JournalRecordType.UPDATE_DOCUMENTS)) {
+            getApplicant(record).getDocumentManager().updateAllDocuments();
+        } else if (type.equals(JournalRecordType.CREATE_APPLICATION)) {
+            Applicant applicant = getApplicant(record);
+            String jobId = record.getArg(1);
+            applicant.addApplication(jobId, new Application(applicant, employmentCenter.getJobPosting(jobId)));
+        } else if (type.equals(JournalRecordType.DELETE_APPLICATION)) {
+            getApplicant(record).deleteApplication(getApplication(record));
+        } else if (type.equals(JournalRecordType.APPLY)) {
+            getApplication(record).apply(employmentCenter);
+        } else if (type.equals(JournalRecordType.CANCEL_APPLICATION)) {
+            getApplication(record).cancel(employmentCenter);
+        } else if (type.equals(JournalRecordType.ADD_INTERVIEW_ROUND)) {
+            getManager(record.getArg(0)).addInterviewRound(new InterviewRound(record.getArg(1)));
+        } else if (type.equals(JournalRecordType.NEXT_ROUND)) {
+            InterviewRoundManager manager = getManager(record.getArg(0));
+            manager.checkStatus();
+            manager.nextRound();
+        } else if (type.equals(JournalRecordType.MATCH_INTERVIEW)) {
+            String round = record.getArg(2);
+            getApplication(record).getInterviewByRound(round).match(
+                    employmentCenter.getEmployee(record.getArg(3), UserType.INTERVIEWER), round, employmentCenter);
+        } else if (type.equals(JournalRecordType.MATCH_ALL_INTERVIEWS)) {
+            LinkedHashMap<Application, Employee> assignments = new LinkedHashMap<>();
+            for (int i = 2; i < record.getArgCount(); i += 2) {
+                assignments.put(employmentCenter.getApplicant(record.getArg(i)).getApplication(record.getArg(0)),
+                        employmentCenter.getEmployee(record.getArg(i + 1), UserType.INTERVIEWER));
+            }
+            InterviewMatcher.match(record.getArg(1), assignments, employmentCenter);
+        } else if (type.equals(JournalRecordType.INTERVIEW_RESULT)) {
+            Interview interview = getApplication(record).getInterviewByRound(record.getArg(2));
+            interview.setStatus(InterviewStatus.valueOf(record.getArg(3)));
+            interview.setRecommendation(record.getArg(4));
+        } else if (type.equals(JournalRecordType.INTERVIEW_RESULTS)) {
+            ArrayList<Interview> interviews = new ArrayList<>();
+            for (int i = 2; i < record.getArgCount(); i += 3) {
+                Application application =
+                        employmentCenter.getApplicant(record.getArg(i)).getApplication(record.getArg(i + 1));
+                interviews.add(application.getInterviewByRound(record.getArg(i + 2)));
+            }
+            Interview.setResults(interviews, InterviewStatus.valueOf(record.getArg(0)), record.getArg(1));
+        } else if (type.equals(JournalRecordType.HIRE)) {
+            InterviewRoundManager manager = getManager(record.getArg(1));
+            manager.checkStatus();
+            manager.hire(getApplication(record), employmentCenter);
+        }
+    }
+
+    /**
+     * Return the applicant whose username is the first argument of {@code record}.
+     *
+     * @param record the record of the change
+     * @return the applicant the change was made by or for
+     */
+    private Applicant getApplicant(JournalRecord record) {
+        return employmentCenter.getApplicant(record.getArg(0));
+    }
+
+    /**
+     * Return the application of the applicant in the first argument of {@code record}
+     * for the job posting in the second argument.
+     *
+     * @param record the record of the change
+     * @return the application the change was made on
+     */
+    private Application getApplication(JournalRecord record) {
+        return getApplicant(record).getApplication(record.getArg(1));
+    }
+
+    /**
+     * Return the interview round manager of a job posting.
+     *
+     * @param jobId the id of the job posting
+     * @return the interview round manager of the job posting
+     */
+    private InterviewRoundManager getManager(String jobId) {
+        return employmentCenter.getJobPosting(jobId).getInterviewRoundManager();
+    }
+
+    /**
+     * Return a document of a document manager by its id. Records written before documents had ids refer
+     * to the document by its position in the manager instead.
+     *
+     * @param manager the document manager that holds the document
+     * @param key     the id of the document, or its position in records written before ids
+     * @return the document with id or at position {@code key}
+     */
+    private Document getDocument(DocumentManager manager, String key) {
+        Document document = manager.getDocument(key);
+        return document != null ? document : manager.getAllDocuments().get(Integer.parseInt(key));
+    }
+}
@@ -0,0 +1,195 @@
+package model.storage;
+
+import model.enums.UserType;
+import model.interfaces.Encodable;
+import model.job.Application;
+import model.job.JobPosting;
+import model.user.Company;
+import model.user.User;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+
+/**
+ * Class {@code Shard} is the part of the {@code EmploymentCenter} that is written to one file of a
+ * {@code ShardedCheckpoint}: either a company with its employees, its job postings and the applications
+ * to them, or the applicants whose usernames fall into one of the shards of applicants.
+ * <p>
+ * Each company, user and job posting is written with its position in the list of {@code EmploymentCenter}
+ * it is in. The lists only grow at the end, so a new user or job posting of one company does not change
+ * the shard of another, and the lists can still be put back in their order after loading.
+ *
+ * @author group 0120 of CSC207 summer 2019
+ * @see ShardedCheckpoint
+ * @see EmploymentCenter#split(java.util.Set)
+ * @see EmploymentCenter#EmploymentCenter(long, ArrayList)
+ * @since 2019-08-14
+ */
+class Shard implements Encodable {
+
+    /**
+     * The company of this shard, or {@code null} for a shard of applicants.
+     */
+    private Company company;
+
+    /**
+     * The position of {@code company} in the list of companies.
+     */
+    private int companyPosition = -1;
+
+    /**
+     * A map whose key is {@code UserType} and value is the users of that type in this shard.
+     */
+    private EnumMap<UserType, ArrayList<User>> users = new EnumMap<>(UserType.class);
+
+    /**
+     * A map whose key is {@code UserType} and value is the positions of {@code users} in the list of users
+     * of that type.
+     */
+    private EnumMap<UserType, ArrayList<Integer>> userPositions = new EnumMap<>(UserType.class);
+
+    /**
+     * The job postings of the company of this shard.
+     */
+    private ArrayList<JobPosting> jobPostings = new ArrayList<>();
+
+    /**
+     * The positions of {@code jobPostings} in the list of job postings.
+     */
+    private ArrayList<Integer> jobPostingPositions = new ArrayList<>();
+
+    /**
+     * All applications to the job postings of this shard, including ones not submitted yet. In the shard of
+     * applicants, the applications whose job posting can not be found.
+     */
+    private ArrayList<Application> applications = new ArrayList<>();
+
+    /**
+     * Create a new empty {@code Shard}.
+     *
+     * @see EmploymentCenter#split(java.util.Set)
+     */
+    Shard() {
+    }
+
+    /**
+     * Create a {@code Shard} read from a snapshot.
+     *
+     * @param input the snapshot this {@code Shard} is read from
+     * @throws IOException the snapshot can not be read
+     * @see #encode(SnapshotOutput)
+     */
+    Shard(SnapshotInput input) throws IOException {
+        company = input.readObject();
+        companyPosition = input.readInt() - 1;
+        int size = input.readInt();
+        for (int i = 0; i < size; i++) {
+            UserType userType = input.readEnum(UserType.class);
+            users.put(userType, input.readList());
+            userPositions.put(userType, readPositions(input));
+        }
+        jobPostings = input.readList();
+        jobPostingPositions = readPositions(input);
+        applications = input.readList();
+    }
+
+    /**
+     * Write this {@code Shard} to a snapshot.
+     *
+     * @param output the snapshot this {@code Shard} is written to
+     * @throws IOException the snapshot can not be written
+     * @see #Shard(SnapshotInput)
+     */
+    @Override
+    public void encode(SnapshotOutput output) throws IOException {
+        output.writeObject(company);
+        output.writeInt(companyPosition + 1);
+        output.writeInt(users.size());
+        for (UserType userType : users.keySet()) {
+            output.writeEnum(userType);
+            output.writeList(users.get(userType));
+            writePositions(output, userPositions.get(userType));
+        }
+        output.writeList(jobPostings);
+        writePositions(output, jobPostingPositions);
+        output.writeList(applications);
+    }
+
+    /**
+     * Read a list of positions.
+     *
+     * @param input the snapshot the positions are read from
+     * @return the positions read
+     * @throws IOException the positions can not be read
+     */
+    private static ArrayList<Integer> readPositions(SnapshotInput input) throws IOException {
+        int size = input.readInt();
+        ArrayList<Integer> positions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            positions.add(input.readInt());
+        }
+        return positions;
+    }
+
+    /**
+     * Write a list of positions.
+     *
+     * @param output    the snapshot the positions are written to
+     * @param positions the positions to be written
+     * @throws IOException the positions can not be written
+     */
+    private static void writePositions(SnapshotOutput output, ArrayList<Integer> positions) throws IOException {
+        output.writeInt(positions.size());
+        for (int position : positions) {
+            output.writeInt(position);
+        }
+    }
+
+    void setCompany(Company company, int position) {
+        this.company = company;
+        this.companyPosition = position;
+    }
+
+    void addUser(UserType userType, User user, int position) {
+        users.computeIfAbsent(userType, type -> new ArrayList<>()).add(user);
+        userPositions.computeIfAbsent(userType, type -> new ArrayList<>()).add(position);
+    }
+
+    void addJobPosting(JobPosting jobPosting, int position) {
+        jobPostings.add(jobPosting);
+        jobPostingPositions.add(position);
+    }
+
+    void addApplication(Application application) {
+        applications.add(application);
+    }
+
+    Company getCompany() {
+        return company;
+    }
+
+    int getCompanyPosition() {
+        return companyPosition;
+    }
+
+    EnumMap<UserType, ArrayList<User>> getUsers() {
+        return users;
+    }
+
+    EnumMap<UserType, ArrayList<Integer>> getUserPositions() {
+        return userPositions;
+    }
+
+    ArrayList<JobPosting> getJobPostings() {
+        return jobPostings;
+    }
+
+    ArrayList<Integer> getJobPostingPositions() {
+        return jobPostingPositions;
+    }
+
+    ArrayList<Application> getApplications() {
+        return applications;
+    }
+}
@@ -0,0 +1,386 @@
+package model.storage;
+
+import model.interfaces.Encodable;
+import model.job.Document;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Class {@code ShardedCheckpoint} keeps the checkpoint of the {@code EmploymentCenter} as one shard file
+ * per company and a few for applicants, listed by a small manifest.
+ * <p>
+ * A shard file is named by the SHA-256 digest of its bytes. When a checkpoint is encoded, only the shards
+ * the {@code EmploymentCenter} has marked as changed are encoded; the manifest entries of the other shards are
+ * taken from the last checkpoint written. When it is written, the files of the changed shards are written, the
+ * manifest is moved over the old one, and the files it no longer lists are deleted. When a checkpoint is read,
+ * the shards are read in parallel.
+ * <p>
+ * A document is written to every shard that refers to it, but only its name, ids and dates are; its content is
+ * kept once in the {@code DocumentStore}.
+ *
+ * @author group 0120 of CSC207 summer 2019
+ * @see Shard
+ * @see CheckpointImage
+ * @see SnapshotCodec
+ * @see main.Main
+ * @since 2019-08-14
+ */
+public class ShardedCheckpoint {
+
+    // The extension of shard files
+    private static final String SHARD_EXTENSION = ".shard";
+
+    // The extension of files that are being written
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+
+    /**
+     * The manifest, which is the file a checkpoint is known by.
+     */
+    private File manifest;
+
+    /**
+     * The directory where shard files are stored.
+     */
+    private File directory;
+
+    /**
+     * The store the content of documents is written to and read from.
+     */
+    private DocumentStore documentStore;
+
+    /**
+     * A hash map from key to the entries of the manifest of the last checkpoint written or read, or
+     * {@code null} if there is none whose shards can be taken into the next checkpoint, in which case all
+     * shards are encoded.
+     *
+     * @see #encode(EmploymentCenter)
+     * @see #write(CheckpointImage)
+     */
+    private HashMap<String, Entry> entries;
+
+    /**
+     * The number of times writing a checkpoint has failed. A checkpoint encoded before a failure leaves out
+     * the shards changed in the one that failed, so it is not written.
+     *
+     * @see #write(CheckpointImage)
+     */
+    private int generation;
+
+    /**
+     * True if and only if the checkpoint read was written by an older version of the snapshot format, so that
+     * the journal can not be appended to it.
+     *
+     * @see #isOutdated()
+     */
+    private boolean outdated;
+
+    /**
+     * Create a new {@code ShardedCheckpoint}.
+     *
+     * @param manifest      the manifest of the checkpoint
+     * @param directory     the directory where shard files are stored
+     * @param documentStore the store the content of documents is written to and read from
+     */
+    public ShardedCheckpoint(File manifest, File directory, DocumentStore documentStore) {
+        this.manifest = manifest;
+        this.directory = directory;
+        this.documentStore = documentStore;
+    }
+
+    /**
+     * Read the {@code EmploymentCenter} from the checkpoint. A checkpoint written by version 1 or 2
+     * is a single snapshot, and one written before version 5 does not list the key of each shard; all
+     * shards are then written on the next checkpoint.
+     *
+     * @return the {@code EmploymentCenter} read
+     * @throws IOException the checkpoint can not be read or is corrupted
+     */
+    public EmploymentCenter read() throws IOException {
+        try {
+            SnapshotInput input = SnapshotCodec.open(manifest, documentStore);
+            outdated = input.getVersion() < SnapshotCodec.VERSION;
+            if (input.getVersion() < 3) return new EmploymentCenter(input);
+            long journalSequence = input.readLong();
+            HashMap<String, Entry> read = new HashMap<>();
+            ArrayList<String> names;
+            if (input.getVersion() < 5) {
+                names = input.readStringList();
+            } else {
+                names = new ArrayList<>();
+                int size = input.readInt();
+                for (int i = 0; i < size; i++) {
+                    String key = input.readString();
+                    Entry entry = new Entry(input);
+                    read.put(key, entry);
+                    names.add(entry.name);
+                }
+            }
+            ConcurrentHashMap<Long, Document> documents = new ConcurrentHashMap<>();
+            ExecutorService readers = Executors.newFixedThreadPool(
+                    Math.max(1, Math.min(names.size(), Runtime.getRuntime().availableProcessors())));
+            ArrayList<Shard> shards = new ArrayList<>();
+            try {
+                ArrayList<Future<Shard>> futures = new ArrayList<>();
+                for (String name : names) {
+                    futures.add(readers.submit(() -> {
+                        SnapshotInput shardInput = SnapshotCodec.open(new File(directory, name), documentStore);
+                        shardInput.shareDocuments(documents);
+                        return new Shard(shardInput);
+                    }));
+                }
+                for (Future<Shard> future : futures) {
+                    shards.add(future.get());
+                }
+            } catch (InterruptedException | ExecutionException e) {
+                throw new IOException("Corrupted snapshot", e.getCause());
+            } finally {
+                readers.shutdown();
+            }
+            EmploymentCenter employmentCenter = new EmploymentCenter(journalSequence, shards);
+            if (!outdated) {
+                synchronized (this) {
+                    entries = read;
+                }
+            }
+            return employmentCenter;
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupted snapshot", e);
+        }
+    }
+
+    /**
+     * Return whether the checkpoint read was written by an older version of the snapshot format. Records
+     * made since then may refer to what the older version did not write, such as the ids of documents, so
+     * the next save must write a new checkpoint.
+     *
+     * @return true if and only if the checkpoint read is outdated
+     * @see main.Main
+     */
+    public boolean isOutdated() {
+        return outdated;
+    }
+
+    /**
+     * Encode the shards of {@code employmentCenter} that have changed since the last checkpoint was encoded,
+     * or all of them if there is no checkpoint to take the others from. It must be called on the thread that
+     * makes changes, so that the checkpoint is consistent; the image returned is written by
+     * {@link #write(CheckpointImage)} on any thread.
+     *
+     * @param employmentCenter the {@code EmploymentCenter} to be encoded
+     * @return the image of the checkpoint, with the bytes of the shards that have changed only
+     * @throws IOException the checkpoint can not be encoded; the shards are then marked as changed again
+     */
+    public CheckpointImage encode(EmploymentCenter employmentCenter) throws IOException {
+        HashSet<String> keys = employmentCenter.takeChangedShards();
+        int base;
+        synchronized (this) {
+            if (entries == null) keys = null;
+            base = generation;
+        }
+        try {
+            LinkedHashMap<String, byte[]> shards = new LinkedHashMap<>();
+            HashMap<String, HashSet<Long>> contentIds = new HashMap<>();
+            for (Map.Entry<String, Shard> shard : employmentCenter.split(keys).entrySet()) {
+                HashSet<Long> ids = new HashSet<>();
+                shards.put(shard.getKey(), SnapshotCodec.encode(shard.getValue(), documentStore, ids));
+                contentIds.put(shard.getKey(), ids);
+            }
+            return new CheckpointImage(employmentCenter.getJournalSequence(), keys, shards, contentIds,
+                    documentStore.nextId(), base);
+        } catch (IOException | RuntimeException e) {
+            employmentCenter.restoreChangedShards(keys);
+            throw e;
+        }
+    }
+
+    /**
+     * Write a checkpoint encoded by {@link #encode(EmploymentCenter)}. The shards that have changed are
+     * written first, then the manifest is written to a temporary file and moved over the old one, so a crash
+     * never leaves a half written checkpoint. Shard files no longer listed are deleted afterwards.
+     * <p>
+     * An image of changed shards only is not written if a checkpoint failed to be written since it was
+     * encoded, since the shards changed in that one are not in it.
+     *
+     * @param image the image of the checkpoint
+     * @throws IOException the checkpoint can not be written
+     */
+    public void write(CheckpointImage image) throws IOException {
+        HashMap<String, Entry> written;
+        synchronized (this) {
+            if (image.getChangedKeys() == null) {
+                written = new HashMap<>();
+            } else if (entries == null || image.getGeneration() != generation) {
+                throw new IOException("Checkpoint encoded before a failed one");
+            } else {
+                written = new HashMap<>(entries);
+            }
+        }
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Can not create " + directory);
+            }
+            if (image.getChangedKeys() != null) written.keySet().removeAll(image.getChangedKeys());
+            for (Map.Entry<String, byte[]> shard : image.getShards().entrySet()) {
+                String name = getName(shard.getValue());
+                File file = new File(directory, name);
+                if (!file.exists()) writeFile(shard.getValue(), file);
+                written.put(shard.getKey(), new Entry(name, image.getContentIds(shard.getKey())));
+            }
+            documentStore.force();
+            writeFile(SnapshotCodec.encode(output -> {
+                output.writeLong(image.getJournalSequence());
+                output.writeInt(written.size());
+                for (String key : written.keySet()) {
+                    output.writeString(key);
+                    written.get(key).encode(output);
+                }
+            }, documentStore), manifest);
+        } catch (IOException e) {
+            synchronized (this) {
+                generation++;
+            }
+            throw e;
+        }
+        HashSet<String> names = new HashSet<>();
+        for (Entry entry : written.values()) {
+            names.add(entry.name);
+        }
+        synchronized (this) {
+            entries = written;
+        }
+        deleteUnlisted(names);
+    }
+
+    /**
+     * Rewrite the {@code DocumentStore} without the contents of documents that were deleted or replaced, if
+     * they take up most of it. It must be called only after the checkpoint has been written.
+     *
+     * @param image the image of the checkpoint written
+     * @throws IOException the store can not be rewritten; it is then left as it was
+     * @see DocumentStore#compact(java.util.Set, long)
+     */
+    public void compactDocuments(CheckpointImage image) throws IOException {
+        HashSet<Long> liveIds = new HashSet<>();
+        synchronized (this) {
+            if (entries == null) return;
+            for (Entry entry : entries.values()) {
+                liveIds.addAll(entry.contentIds);
+            }
+        }
+        documentStore.compact(liveIds, image.getWatermark());
+    }
+
+    /**
+     * Write bytes to a temporary file, force them to disk, and move the file to its place.
+     *
+     * @param bytes the bytes to be written
+     * @param file  the file the bytes are written to
+     * @throws IOException the bytes can not be written
+     */
+    private void writeFile(byte[] bytes, File file) throws IOException {
+        File temporary = new File(file.getPath() + TEMPORARY_EXTENSION);
+        try (FileOutputStream output = new FileOutputStream(temporary)) {
+            output.write(bytes);
+            output.getFD().sync();
+        }
+        Files.move(temporary.toPath(), file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Delete shard files that the manifest does not list. A file that can not be deleted is left to be deleted
+     * after a later checkpoint.
+     *
+     * @param names the file names of the shards listed by the manifest
+     */
+    private void deleteUnlisted(HashSet<String> names) {
+        File[] files = directory.listFiles();
+        if (files == null) return;
+        for (File file : files) {
+            String name = file.getName();
+            if ((name.endsWith(SHARD_EXTENSION) && !names.contains(name)) || name.endsWith(TEMPORARY_EXTENSION)) {
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * Return the file name of a shard, which is the SHA-256 digest of its bytes.
+     *
+     * @param bytes the bytes of the shard
+     * @return the file name of the shard
+     */
+    private static String getName(byte[] bytes) {
+        try {
+            StringBuilder name = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(bytes)) {
+                name.append(String.format("%02x", b));
+            }
+            return name.append(SHARD_EXTENSION).toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Class {@code Entry} is the entry of a shard in the manifest: the name of its file and the ids of the
+     * document contents it refers to.
+     */
+    private static class Entry implements Encodable {
+
+        /**
+         * The file name of the shard.
+         */
+        private String name;
+
+        /**
+         * The ids of the contents in the {@code DocumentStore} the shard refers to.
+         */
+        private HashSet<Long> contentIds;
+
+        private Entry(String name, HashSet<Long> contentIds) {
+            this.name = name;
+            this.contentIds = contentIds;
+        }
+
+        /**
+         * Create an {@code Entry} read from the manifest.
+         *
+         * @param input the manifest this {@code Entry} is read from
+         * @throws IOException the {@code Entry} can not be read
+         */
+        private Entry(SnapshotInput input) throws IOException {
+            name = input.readString();
+            int size = input.readInt();
+            contentIds = new HashSet<>();
+            for (int i = 0; i < size; i++) {
+                contentIds.add(input.readLong());
+            }
+        }
+
+        @Override
+        public void encode(SnapshotOutput output) throws IOException {
+            output.writeString(name);
+            output.writeInt(contentIds.size());
+            for (long id : contentIds) {
+                output.writeLong(id);
+            }
+        }
+    }
+}
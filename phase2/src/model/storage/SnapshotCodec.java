@@ -0,0 +1,112 @@
+package model.storage;
+
+import model.interfaces.Encodable;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Class {@code SnapshotCodec} reads and writes the binary snapshot files that a checkpoint
+ * of the {@code EmploymentCenter} is made of.
+ * <p>
+ * A snapshot starts with {@code MAGIC} and the version of its format, so that it can be
+ * told apart from a {@code data.ser} written by Java serialization, and so that snapshots
+ * written by an older version can still be read after the format changes.
+ * <p>
+ * A snapshot is read into memory in one go and decoded from there. Since version 2 the content
+ * of documents is kept in a {@code DocumentStore} and only its id is in the snapshot. Since
+ * version 3 a checkpoint is split into shards, each a snapshot of its own, listed by a manifest
+ * that is a snapshot too; version 1 and 2 checkpoints are a single snapshot. Since version 4 every document
+ * is written with its id, and since version 5 the manifest lists every shard by key.
+ *
+ * @author group 0120 of CSC207 summer 2019
+ * @see SnapshotOutput
+ * @see SnapshotInput
+ * @see ShardedCheckpoint
+ * @since 2019-08-11
+ */
+public class SnapshotCodec {
+
+    // The first four bytes of every snapshot, "EMPC"
+    private static final int MAGIC = 0x454D5043;
+
+    // The version of the format written by this codec
+    static final int VERSION = 5;
+
+    /**
+     * Return whether a file is a snapshot written by this codec, rather than
+     * a file written by Java serialization.
+     *
+     * @param file the file to be checked
+     * @return true if and only if {@code file} starts with {@code MAGIC}
+     * @throws IOException the file can not be read
+     */
+    public static boolean isSnapshot(File file) throws IOException {
+        if (file.length() < Integer.BYTES) return false;
+        try (DataInputStream input = new DataInputStream(new FileInputStream(file))) {
+            return input.readInt() == MAGIC;
+        }
+    }
+
+    /**
+     * Encode an object as a snapshot in memory, with the header in front. It must be called on the thread that
+     * makes changes, so that the snapshot is consistent; the bytes returned can then be written on any thread.
+     * The content of documents not in {@code documentStore} yet is put there, and written to disk later
+     * on the saving thread.
+     *
+     * @param encodable     the object to be encoded, a shard or the manifest of a checkpoint
+     * @param documentStore the store the content of documents is written to
+     * @return the bytes of the snapshot
+     * @throws IOException the snapshot can not be encoded
+     * @see ShardedCheckpoint#encode(EmploymentCenter)
+     */
+    static byte[] encode(Encodable encodable, DocumentStore documentStore) throws IOException {
+        return encode(encodable, documentStore, new HashSet<>());
+    }
+
+    /**
+     * Encode an object as a snapshot in memory, and collect the ids of the contents of the documents it
+     * refers to.
+     *
+     * @param encodable     the object to be encoded
+     * @param documentStore the store the content of documents is written to
+     * @param contentIds    the set the ids of the contents referred to are added to
+     * @return the bytes of the snapshot
+     * @throws IOException the snapshot can not be encoded
+     * @see #encode(Encodable, DocumentStore)
+     */
+    static byte[] encode(Encodable encodable, DocumentStore documentStore, Set<Long> contentIds)
+            throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(stream);
+        header.writeInt(MAGIC);
+        header.writeInt(VERSION);
+        SnapshotOutput output = new SnapshotOutput(stream, documentStore);
+        encodable.encode(output);
+        output.flush();
+        contentIds.addAll(output.getContentIds());
+        return stream.toByteArray();
+    }
+
+    /**
+     * Read a snapshot and check its header.
+     *
+     * @param file          the snapshot file
+     * @param documentStore the store the content of documents is read from
+     * @return the {@code SnapshotInput} positioned after the header
+     * @throws IOException the file is not a snapshot or is written by a newer version
+     * @see ShardedCheckpoint#read()
+     */
+    static SnapshotInput open(File file, DocumentStore documentStore) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+        if (buffer.remaining() < 2 * Integer.BYTES || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a snapshot");
+        }
+        int version = buffer.getInt();
+        if (version < 1 || version > VERSION) throw new IOException("Unknown snapshot version " + version);
+        return new SnapshotInput(buffer, version, documentStore);
+    }
+}
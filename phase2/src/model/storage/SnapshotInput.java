@@ -0,0 +1,312 @@
+package model.storage;
+
+import model.enums.SnapshotEntityType;
+import model.job.*;
+import model.user.Applicant;
+import model.user.Company;
+import model.user.Employee;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Class {@code SnapshotInput} reads back the model written by {@code SnapshotOutput}
+ * straight from a buffer holding the snapshot file.
+ * <p>
+ * Each class written to a snapshot has a constructor that takes a {@code SnapshotInput}.
+ * The constructor calls {@link #register(Object)} before reading any field, so that an
+ * object referring back to it while it is being read gets the same object.
+ *
+ * @author group 0120 of CSC207 summer 2019
+ * @see SnapshotOutput
+ * @see SnapshotCodec
+ * @since 2019-08-11
+ */
+public class SnapshotInput {
+
+    /**
+     * The buffer the snapshot is read from.
+     */
+    private ByteBuffer input;
+
+    /**
+     * The version of the format the snapshot was written in.
+     *
+     * @see #getVersion()
+     */
+    private int version;
+
+    /**
+     * All strings read so far, in the order of the string table.
+     *
+     * @see #readString()
+     */
+    private ArrayList<String> strings = new ArrayList<>();
+
+    /**
+     * All objects read so far, in the order of their handles.
+     *
+     * @see #readObject()
+     * @see #register(Object)
+     */
+    private ArrayList<Object> objects = new ArrayList<>();
+
+    /**
+     * The store the content of documents is read from.
+     *
+     * @see #getDocumentStore()
+     */
+    private DocumentStore documentStore;
+
+    /**
+     * A hash map from content id to the document first read with it, shared by all shards of a checkpoint
+     * that are read together, or {@code null} if only this snapshot is read.
+     *
+     * @see #shareDocuments(ConcurrentHashMap)
+     * @see #readObject()
+     */
+    private ConcurrentHashMap<Long, Document> documents;
+
+    /**
+     * Create a new {@code SnapshotInput}.
+     *
+     * @param input         the buffer the snapshot is read from, positioned after the header
+     * @param version       the version of the format the snapshot was written in
+     * @param documentStore the store the content of documents is read from
+     * @see SnapshotCodec#open(java.io.File, DocumentStore)
+     */
+    SnapshotInput(ByteBuffer input, int version, DocumentStore documentStore) {
+        this.input = input;
+        this.version = version;
+        this.documentStore = documentStore;
+    }
+
+    /**
+     * Return the version of the format the snapshot was written in, so that a class can
+     * still read fields written by an older version.
+     *
+     * @return the version of the snapshot
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    public DocumentStore getDocumentStore() {
+        return documentStore;
+    }
+
+    /**
+     * Share documents with the other shards of a checkpoint. A document is written to every shard that refers
+     * to it, and each copy read is replaced by the first one read, so it is still a single object after loading.
+     *
+     * @param documents the documents read so far by all shards, by content id
+     * @see ShardedCheckpoint#read()
+     */
+    void shareDocuments(ConcurrentHashMap<Long, Document> documents) {
+        this.documents = documents;
+    }
+
+    /**
+     * Read a non-negative int written by {@code SnapshotOutput.writeInt}.
+     *
+     * @return the int read
+     * @throws IOException the int can not be read
+     */
+    public int readInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = input.get() & 0xFF;
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Corrupted snapshot");
+    }
+
+    public long readLong() {
+        return input.getLong();
+    }
+
+    public boolean readBoolean() {
+        return input.get() != 0;
+    }
+
+    /**
+     * Read an enum constant written by its ordinal.
+     *
+     * @param type the class of the enum
+     * @param <E>  the type of the enum
+     * @return the enum constant read, can be {@code null}
+     * @throws IOException the enum constant can not be read
+     */
+    public <E extends Enum<E>> E readEnum(Class<E> type) throws IOException {
+        int ordinal = readInt();
+        if (ordinal == 0) return null;
+        E[] constants = type.getEnumConstants();
+        if (ordinal > constants.length) throw new IOException("Corrupted snapshot");
+        return constants[ordinal - 1];
+    }
+
+    /**
+     * Read a date written by its epoch day.
+     *
+     * @return the date read, can be {@code null}
+     * @throws IOException the date can not be read
+     */
+    public LocalDate readDate() throws IOException {
+        return readBoolean() ? LocalDate.ofEpochDay(readLong()) : null;
+    }
+
+    /**
+     * Read a string written by {@code SnapshotOutput.writeText}.
+     *
+     * @return the string read, can be {@code null}
+     * @throws IOException the string can not be read
+     */
+    public String readText() throws IOException {
+        byte[] bytes = readTextBytes();
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read a string written by {@code SnapshotOutput.writeText} without decoding it, so that
+     * a large text that may never be shown does not have to be decoded when loading.
+     *
+     * @return the UTF-8 bytes of the string read, can be {@code null}
+     * @throws IOException the string can not be read
+     * @see model.job.Document#getContent()
+     */
+    public byte[] readTextBytes() throws IOException {
+        int length = readInt();
+        if (length == 0) return null;
+        byte[] bytes = new byte[length - 1];
+        input.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Read a string written through the string table.
+     *
+     * @return the string read, can be {@code null}
+     * @throws IOException the string can not be read
+     */
+    public String readString() throws IOException {
+        int position = readInt();
+        if (position == 0) return null;
+        if (position <= strings.size()) return strings.get(position - 1);
+        if (position != strings.size() + 1) throw new IOException("Corrupted snapshot");
+        String string = readText();
+        strings.add(string);
+        return string;
+    }
+
+    /**
+     * Read a list of strings.
+     *
+     * @return the strings read
+     * @throws IOException the strings can not be read
+     */
+    public ArrayList<String> readStringList() throws IOException {
+        int size = readInt();
+        ArrayList<String> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(readString());
+        }
+        return list;
+    }
+
+    /**
+     * Read a hash map from string to string.
+     *
+     * @return the hash map read
+     * @throws IOException the hash map can not be read
+     */
+    public HashMap<String, String> readStringMap() throws IOException {
+        int size = readInt();
+        HashMap<String, String> map = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            map.put(readString(), readString());
+        }
+        return map;
+    }
+
+    /**
+     * Read a list of objects.
+     *
+     * @param <T> the type of the objects
+     * @return the objects read
+     * @throws IOException the objects can not be read
+     * @see #readObject()
+     */
+    public <T> ArrayList<T> readList() throws IOException {
+        int size = readInt();
+        ArrayList<T> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(readObject());
+        }
+        return list;
+    }
+
+    /**
+     * Read an object written by {@code SnapshotOutput.writeObject}.
+     *
+     * @param <T> the type of the object
+     * @return the object read, can be {@code null}
+     * @throws IOException the object can not be read
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T readObject() throws IOException {
+        int handle = readInt();
+        if (handle == 0) return null;
+        if (handle <= objects.size()) return (T) objects.get(handle - 1);
+        if (handle != objects.size() + 1) throw new IOException("Corrupted snapshot");
+        SnapshotEntityType type = readEnum(SnapshotEntityType.class);
+        Object object = create(type);
+        if (objects.size() < handle || objects.get(handle - 1) != object) {
+            throw new IOException("Corrupted snapshot");
+        }
+        if (documents != null && object instanceof Document && ((Document) object).getContentId() != 0) {
+            Document first = documents.putIfAbsent(((Document) object).getContentId(), (Document) object);
+            if (first != null) {
+                object = first;
+                objects.set(handle - 1, object);
+            }
+        }
+        return (T) object;
+    }
+
+    /**
+     * Give the next handle to an object that is being read. It must be called before
+     * the object reads any of its fields.
+     *
+     * @param object the object being read
+     */
+    public void register(Object object) {
+        objects.add(object);
+    }
+
+    /**
+     * Create an object of the given type from the fields that follow.
+     *
+     * @param type the type of the object
+     * @return the object read
+     * @throws IOException the object can not be read
+     */
+    private Object create(SnapshotEntityType type) throws IOException {
+        if (type == null) throw new IOException("Corrupted snapshot");
+        else if (type.equals(SnapshotEntityType.APPLICANT)) return new Applicant(this);
+        else if (type.equals(SnapshotEntityType.EMPLOYEE)) return new Employee(this);
+        else if (type.equals(SnapshotEntityType.COMPANY)) return new Company(this);
+        else if (type.equals(SnapshotEntityType.JOB_POSTING)) return new JobPosting(this);
+        else if (type.equals(SnapshotEntityType.INTERVIEW_ROUND_MANAGER)) return new InterviewRoundManager(this);
+        else if (type.equals(SnapshotEntityType.INTERVIEW_ROUND)) return new InterviewRound(this);
+        else if (type.equals(SnapshotEntityType.APPLICATION)) return new Application(this);
+        else if (type.equals(SnapshotEntityType.INTERVIEW)) return new Interview(this);
+        else if (type.equals(SnapshotEntityType.DOCUMENT_MANAGER)) return new DocumentManager(this);
+        else return new Document(this);
+    }
+}
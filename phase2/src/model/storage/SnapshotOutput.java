@@ -0,0 +1,290 @@
+package model.storage;
+
+import model.enums.SnapshotEntityType;
+import model.interfaces.Encodable;
+import model.job.*;
+import model.user.Applicant;
+import model.user.Company;
+import model.user.Employee;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * Class {@code SnapshotOutput} writes the model to a compact binary snapshot.
+ * <p>
+ * Numbers are written in as few bytes as they need, enums are written by ordinal, and
+ * every id or other repeated string is written once and then referred to by its position
+ * in a string table. Objects are also written once and then referred to by handle, so
+ * shared objects stay shared when the snapshot is read by {@code SnapshotInput}.
+ *
+ * @author group 0120 of CSC207 summer 2019
+ * @see SnapshotInput
+ * @see SnapshotCodec
+ * @see Encodable
+ * @since 2019-08-11
+ */
+public class SnapshotOutput {
+
+    /**
+     * The stream the snapshot is written to.
+     */
+    private DataOutputStream output;
+
+    /**
+     * A hash map from every string written so far to its position in the string table.
+     *
+     * @see #writeString(String)
+     */
+    private HashMap<String, Integer> strings = new HashMap<>();
+
+    /**
+     * A hash map from every object written so far to its handle.
+     *
+     * @see #writeObject(Object)
+     */
+    private IdentityHashMap<Object, Integer> handles = new IdentityHashMap<>();
+
+    /**
+     * The store where the content of documents is written to instead of the snapshot.
+     *
+     * @see #getDocumentStore()
+     */
+    private DocumentStore documentStore;
+
+    /**
+     * The ids of the contents in {@code documentStore} of all documents written so far.
+     *
+     * @see #writeContentId(long)
+     * @see #getContentIds()
+     */
+    private HashSet<Long> contentIds = new HashSet<>();
+
+    /**
+     * Create a new {@code SnapshotOutput}.
+     *
+     * @param output        the stream the snapshot is written to
+     * @param documentStore the store where the content of documents is written to
+     * @see SnapshotCodec#encode(model.interfaces.Encodable, DocumentStore)
+     */
+    SnapshotOutput(OutputStream output, DocumentStore documentStore) {
+        this.output = new DataOutputStream(output);
+        this.documentStore = documentStore;
+    }
+
+    public DocumentStore getDocumentStore() {
+        return documentStore;
+    }
+
+    HashSet<Long> getContentIds() {
+        return contentIds;
+    }
+
+    /**
+     * Write a non-negative int in as few bytes as it needs, seven bits per byte.
+     *
+     * @param value the int to be written
+     * @throws IOException the int can not be written
+     */
+    public void writeInt(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            output.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte(value);
+    }
+
+    public void writeLong(long value) throws IOException {
+        output.writeLong(value);
+    }
+
+    /**
+     * Write the id of the content of a document in {@code documentStore}, and remember that the snapshot
+     * refers to it.
+     *
+     * @param id the id of the content, or 0 if the document has no content in the store
+     * @throws IOException the id can not be written
+     * @see DocumentStore#compact(java.util.Set, long)
+     */
+    public void writeContentId(long id) throws IOException {
+        output.writeLong(id);
+        if (id != 0) contentIds.add(id);
+    }
+
+    public void writeBoolean(boolean value) throws IOException {
+        output.writeBoolean(value);
+    }
+
+    /**
+     * Write an enum constant by its ordinal.
+     *
+     * @param value the enum constant to be written, can be {@code null}
+     * @throws IOException the enum constant can not be written
+     */
+    public void writeEnum(Enum<?> value) throws IOException {
+        writeInt(value == null ? 0 : value.ordinal() + 1);
+    }
+
+    /**
+     * Write a date by its epoch day.
+     *
+     * @param date the date to be written, can be {@code null}
+     * @throws IOException the date can not be written
+     */
+    public void writeDate(LocalDate date) throws IOException {
+        writeBoolean(date != null);
+        if (date != null) writeLong(date.toEpochDay());
+    }
+
+    /**
+     * Write a string that appears only once, such as the content of a document,
+     * without putting it in the string table.
+     *
+     * @param text the string to be written, can be {@code null}
+     * @throws IOException the string can not be written
+     */
+    public void writeText(String text) throws IOException {
+        writeTextBytes(text == null ? null : text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Write a string that is already encoded in UTF-8, in the same format as {@code writeText}.
+     *
+     * @param bytes the UTF-8 bytes of the string to be written, can be {@code null}
+     * @throws IOException the string can not be written
+     * @see SnapshotInput#readTextBytes()
+     */
+    public void writeTextBytes(byte[] bytes) throws IOException {
+        if (bytes == null) {
+            writeInt(0);
+        } else {
+            writeInt(bytes.length + 1);
+            output.write(bytes);
+        }
+    }
+
+    /**
+     * Write a string through the string table. A string written before is written
+     * again as its position in the table only.
+     *
+     * @param string the string to be written, can be {@code null}
+     * @throws IOException the string can not be written
+     */
+    public void writeString(String string) throws IOException {
+        if (string == null) {
+            writeInt(0);
+            return;
+        }
+        Integer position = strings.get(string);
+        if (position != null) {
+            writeInt(position);
+        } else {
+            strings.put(string, strings.size() + 1);
+            writeInt(strings.size());
+            writeText(string);
+        }
+    }
+
+    /**
+     * Write a list of strings.
+     *
+     * @param list the strings to be written
+     * @throws IOException the strings can not be written
+     */
+    public void writeStringList(List<String> list) throws IOException {
+        writeInt(list.size());
+        for (String string : list) {
+            writeString(string);
+        }
+    }
+
+    /**
+     * Write a hash map from string to string.
+     *
+     * @param map the hash map to be written
+     * @throws IOException the hash map can not be written
+     */
+    public void writeStringMap(HashMap<String, String> map) throws IOException {
+        writeInt(map.size());
+        for (String key : map.keySet()) {
+            writeString(key);
+            writeString(map.get(key));
+        }
+    }
+
+    /**
+     * Write a list of objects.
+     *
+     * @param list the objects to be written
+     * @throws IOException the objects can not be written
+     * @see #writeObject(Object)
+     */
+    public void writeList(List<?> list) throws IOException {
+        writeInt(list.size());
+        for (Object object : list) {
+            writeObject(object);
+        }
+    }
+
+    /**
+     * Write an object. An object written before is written again as its handle only;
+     * otherwise its type and all its fields follow the new handle.
+     *
+     * @param object the object to be written, can be {@code null}
+     * @throws IOException the object can not be written
+     * @see SnapshotInput#readObject()
+     */
+    public void writeObject(Object object) throws IOException {
+        if (object == null) {
+            writeInt(0);
+            return;
+        }
+        Integer handle = handles.get(object);
+        if (handle != null) {
+            writeInt(handle);
+            return;
+        }
+        SnapshotEntityType type = getType(object);
+        handles.put(object, handles.size() + 1);
+        writeInt(handles.size());
+        writeEnum(type);
+        ((Encodable) object).encode(this);
+    }
+
+    /**
+     * Return the type an object is written as.
+     *
+     * @param object the object to be written
+     * @return the type of {@code object}
+     * @throws IOException {@code object} can not be written to a snapshot
+     */
+    private SnapshotEntityType getType(Object object) throws IOException {
+        if (object instanceof Applicant) return SnapshotEntityType.APPLICANT;
+        else if (object instanceof Employee) return SnapshotEntityType.EMPLOYEE;
+        else if (object instanceof Company) return SnapshotEntityType.COMPANY;
+        else if (object instanceof JobPosting) return SnapshotEntityType.JOB_POSTING;
+        else if (object instanceof InterviewRoundManager) return SnapshotEntityType.INTERVIEW_ROUND_MANAGER;
+        else if (object instanceof InterviewRound) return SnapshotEntityType.INTERVIEW_ROUND;
+        else if (object instanceof Application) return SnapshotEntityType.APPLICATION;
+        else if (object instanceof Interview) return SnapshotEntityType.INTERVIEW;
+        else if (object instanceof DocumentManager) return SnapshotEntityType.DOCUMENT_MANAGER;
+        else if (object instanceof Document) return SnapshotEntityType.DOCUMENT;
+        else throw new IOException("Can not write " + object.getClass().getName() + " to a snapshot");
+    }
+
+    /**
+     * Push everything written so far to the underlying stream.
+     *
+     * @throws IOException the stream can not be flushed
+     */
+    void flush() throws IOException {
+        output.flush();
+    }
+}
@@ -10,7 +10,10 @@ import model.interfaces.ShowAble;
 import model.job.Application;
 import model.job.DocumentManager;
 import model.job.Interview;
+import model.storage.SnapshotInput;
+import model.storage.SnapshotOutput;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -58,10 +61,56 @@ public class Applicant extends User implements Serializable, ShowAble {
         this.documentManager = new DocumentManager(true);
     }
 
+    /**
+     * Constructor for {@code Applicant} read from a snapshot. Since version 3 the applications are not
+     * read here; they are given back after the shards of their companies are read.
+     *
+     * @param input the snapshot this {@code Applicant} is read from
+     * @throws IOException the {@code Applicant} can not be read
+     * @see #encode(SnapshotOutput)
+     */
+    public Applicant(SnapshotInput input) throws IOException {
+        super(input);
+        this.applications = new HashMap<>();
+        if (input.getVersion() < 3) {
+            int size = input.readInt();
+            for (int i = 0; i < size; i++) {
+                this.applications.put(input.readString(), input.readObject());
+            }
+        }
+        this.documentManager = input.readObject();
+    }
+
+    /**
+     * Write this {@code Applicant} to a snapshot. The applications are not written here but in the shard
+     * of the company of their job posting, so that applying does not change a shard of applicants.
+     *
+     * @param output the snapshot this {@code Applicant} is written to
+     * @throws IOException the {@code Applicant} can not be written
+     * @see #Applicant(SnapshotInput)
+     * @see model.storage.ShardedCheckpoint
+     */
+    @Override
+    public void encode(SnapshotOutput output) throws IOException {
+        super.encode(output);
+        output.writeObject(documentManager);
+    }
+
     public ArrayList<Application> getApplications() {
         return new ArrayList<>(applications.values());
     }
 
+    /**
+     * Return the {@code Application} this {@code Applicant} has for a job posting.
+     *
+     * @param jobId the id for the {@code JobPosting}
+     * @return the {@code Application} for the job posting, or {@code null} if there is none
+     * @see model.storage.JournalReplayer
+     */
+    public Application getApplication(String jobId) {
+        return this.applications.get(jobId);
+    }
+
     public DocumentManager getDocumentManager() {
         return this.documentManager;
     }
@@ -1,9 +1,13 @@
 package model.user;
 
 import model.enums.UserType;
+import model.interfaces.Encodable;
 import model.job.Application;
 import model.storage.EmploymentCenter;
+import model.storage.SnapshotInput;
+import model.storage.SnapshotOutput;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -17,7 +21,7 @@ import java.util.HashMap;
  * @see model.job.JobPosting
  * @since 2019-08-04
  */
-public class Company implements Serializable {
+public class Company implements Serializable, Encodable {
 
     private static final long serialVersionUID = 4339413084182647159L;
 
@@ -81,6 +85,54 @@ public class Company implements Serializable {
         this.applications = new HashMap<>();
     }
 
+    /**
+     * Constructor for {@code Company} read from a snapshot.
+     *
+     * @param input the snapshot this {@code Company} is read from
+     * @throws IOException the {@code Company} can not be read
+     * @see #encode(SnapshotOutput)
+     */
+    public Company(SnapshotInput input) throws IOException {
+        input.register(this);
+        this.id = input.readString();
+        int size = input.readInt();
+        this.workerIds = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            this.workerIds.put(input.readEnum(UserType.class), input.readStringList());
+        }
+        this.jobPostingIds = input.readStringList();
+        size = input.readInt();
+        this.applications = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            this.applications.put(input.readString(), input.readList());
+        }
+    }
+
+    /**
+     * Write this {@code Company} to a snapshot. The workers are written in the order of {@code UserType},
+     * so that an unchanged company is always written the same way.
+     *
+     * @param output the snapshot this {@code Company} is written to
+     * @throws IOException the {@code Company} can not be written
+     * @see #Company(SnapshotInput)
+     */
+    @Override
+    public void encode(SnapshotOutput output) throws IOException {
+        output.writeString(id);
+        output.writeInt(workerIds.size());
+        for (UserType userType : UserType.values()) {
+            if (!workerIds.containsKey(userType)) continue;
+            output.writeEnum(userType);
+            output.writeStringList(workerIds.get(userType));
+        }
+        output.writeStringList(jobPostingIds);
+        output.writeInt(applications.size());
+        for (String applicantId : applications.keySet()) {
+            output.writeString(applicantId);
+            output.writeList(applications.get(applicantId));
+        }
+    }
+
     public String getId() {
         return this.id;
     }
@@ -2,13 +2,18 @@ package model.user;
 
 import model.enums.UserType;
 import model.exceptions.WrongEmployeeTypeException;
+import model.interfaces.FilterKeys;
 import model.interfaces.Filterable;
 import model.job.Interview;
 import model.job.JobPosting;
+import model.storage.SnapshotInput;
+import model.storage.SnapshotOutput;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Set;
 
 /**
  * Class {@code Employee} is a type of {@code User} that works for a company.
@@ -49,6 +54,14 @@ public class Employee extends User implements Filterable, Serializable {
      */
     private ArrayList<Object> files = new ArrayList<>();
 
+    /**
+     * The search values of this employee. The username, real name and company of an employee
+     * never change, so they are built once.
+     *
+     * @see #getFilterKeys()
+     */
+    private transient FilterKeys filterKeys;
+
     /**
      * Constructor for {@code Employee}.
      *
@@ -64,6 +77,33 @@ public class Employee extends User implements Filterable, Serializable {
         this.companyId = companyId;
     }
 
+    /**
+     * Constructor for {@code Employee} read from a snapshot.
+     *
+     * @param input the snapshot this {@code Employee} is read from
+     * @throws IOException the {@code Employee} can not be read
+     * @see #encode(SnapshotOutput)
+     */
+    public Employee(SnapshotInput input) throws IOException {
+        super(input);
+        this.companyId = input.readString();
+        this.files = input.readList();
+    }
+
+    /**
+     * Write this {@code Employee} to a snapshot.
+     *
+     * @param output the snapshot this {@code Employee} is written to
+     * @throws IOException the {@code Employee} can not be written
+     * @see #Employee(SnapshotInput)
+     */
+    @Override
+    public void encode(SnapshotOutput output) throws IOException {
+        super.encode(output);
+        output.writeString(companyId);
+        output.writeList(files);
+    }
+
     /**
      * return the company ID of this employee
      *
@@ -122,6 +162,16 @@ public class Employee extends User implements Filterable, Serializable {
         this.files.remove(file);
     }
 
+    /**
+     * Remove many files in one pass over {@code files}.
+     *
+     * @param files the files to be removed, in a set whose {@code contains} is fast
+     * @see Interview#setResults(java.util.List, model.enums.InterviewStatus, String)
+     */
+    public void removeFiles(Set<Object> files) {
+        this.files.removeAll(files);
+    }
+
     /**
      * Return a hash map of headings and corresponding values about this employee.
      *
@@ -136,4 +186,10 @@ public class Employee extends User implements Filterable, Serializable {
         map.put("company", getCompanyId());
         return map;
     }
+
+    @Override
+    public FilterKeys getFilterKeys() {
+        if (filterKeys == null) filterKeys = new FilterKeys(getFilterMap());
+        return filterKeys;
+    }
 }
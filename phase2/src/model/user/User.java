@@ -3,8 +3,12 @@ package model.user;
 import gui.scenarios.userRegister.UserRegisterScenario;
 import model.enums.UserType;
 import model.exceptions.NotEmployeeException;
+import model.interfaces.Encodable;
 import model.storage.EmploymentCenter;
+import model.storage.SnapshotInput;
+import model.storage.SnapshotOutput;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -19,7 +23,7 @@ import java.util.HashMap;
  * @see Employee
  * @since 2019-08-04
  */
-public abstract class User implements Serializable {
+public abstract class User implements Serializable, Encodable {
 
     private static final long serialVersionUID = -9123367478932197170L;
 
@@ -90,6 +94,39 @@ public abstract class User implements Serializable {
         setUserDetail(map);
     }
 
+    /**
+     * Constructor for {@code User} read from a snapshot.
+     *
+     * @param input the snapshot this {@code User} is read from
+     * @throws IOException the {@code User} can not be read
+     * @see #encode(SnapshotOutput)
+     */
+    User(SnapshotInput input) throws IOException {
+        input.register(this);
+        this.userType = input.readEnum(UserType.class);
+        this.username = input.readString();
+        String password = input.readText();
+        this.password = password == null ? new char[0] : password.toCharArray();
+        this.userDetail = input.readStringMap();
+        this.message = input.readText();
+    }
+
+    /**
+     * Write this {@code User} to a snapshot.
+     *
+     * @param output the snapshot this {@code User} is written to
+     * @throws IOException the {@code User} can not be written
+     * @see #User(SnapshotInput)
+     */
+    @Override
+    public void encode(SnapshotOutput output) throws IOException {
+        output.writeEnum(userType);
+        output.writeString(username);
+        output.writeText(password == null ? null : new String(password));
+        output.writeStringMap(userDetail);
+        output.writeText(message);
+    }
+
     public UserType getUserType() {
         return this.userType;
     }
@@ -154,7 +191,7 @@ public abstract class User implements Serializable {
     /**
      * add message to the this.message
      * @param message  the message will receive
-     * @see model.job.Interview#match(Employee, String)
+     * @see model.job.Interview#match(Employee, String, EmploymentCenter)
      * @see model.job.JobPosting#notifyAllFailedApplicant(EmploymentCenter)
      */
     public void receiveMessage(String message) {